@@ -1,46 +1,55 @@
 package com.saddy.automation;
 
+import com.saddy.framework.data.CsvRowReader;
+import com.saddy.framework.data.ReconciliationEngine;
+import com.saddy.framework.data.ReconciliationReport;
+import com.saddy.framework.download.DownloadManager;
+import com.saddy.framework.driver.DriverFactory;
+import com.saddy.framework.pages.PaginatedTable;
+import com.saddy.framework.pages.TableRow;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.saddy.automation.ScreenshotDemo.captureCompleteScreen;
 
 public class FileDownloadDemo {
     static WebDriver driver;
-    public static void main(String[] args) throws InterruptedException {
-        String downloadPath = System.getProperty("user.dir") + "\\data\\";
-
-        Map<String, Object> prefs = new HashMap<>();
-        // Set the default download directory
-        prefs.put("download.default_directory", downloadPath);
-        // Optional: Disable download prompts
-        prefs.put("download.prompt_for_download", false);
-        // Optional: Disable pop-ups
-        prefs.put("profile.default_content_settings.popups", 0);
-
-        ChromeOptions options = new ChromeOptions();
-        options.setExperimentalOption("prefs", prefs);
-        options.addArguments("--start-maximized");
-//        options.addArguments("--headless");
-
-        driver = new ChromeDriver(options);
-//        driver = new ChromeDriver();
-//        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
-        driver.get("https://panjatan.netlify.app/table");
-        String xpath = "//input[@id='fileInput']";
-
-        driver.findElement(By.xpath("//button[@id='download-csv']")).click();
-
-        System.out.println(driver.getTitle());
-        captureCompleteScreen("FileDownloadDemo", driver);
-        Thread.sleep(6000);
-        driver.quit();
+    public static void main(String[] args) throws IOException {
+//        Own temp folder per run instead of the shared data folder, removed again at the end
+        try (DownloadManager downloads = DownloadManager.forTest("FileDownloadDemo")) {
+            Map<String, Object> prefs = downloads.prefsFor("chrome");
+
+            // Use -Ddriver.profile=fast to run it headless; the download prefs are added to the profile's own
+            driver = DriverFactory.create("chrome", DriverFactory.getActiveProfile(),
+                    options -> DriverFactory.mergePrefs(options, prefs));
+            try {
+                driver.get("https://panjatan.netlify.app/table");
+                String xpath = "//input[@id='fileInput']";
+
+                driver.findElement(By.xpath("//button[@id='download-csv']")).click();
+
+                System.out.println(driver.getTitle());
+                captureCompleteScreen("FileDownloadDemo", driver);
+//                Returns as soon as Chrome has renamed the .crdownload file, instead of sleeping
+                Path downloaded = downloads.awaitDownload("*.csv", Duration.ofSeconds(30));
+                System.out.println("Downloaded: " + downloaded + " sha256 " + downloads.checksumOf(downloaded));
+
+//                Compare every page of the UI table with the downloaded export, row by row on containerId
+                try (CsvRowReader export = CsvRowReader.open(downloaded)) {
+                    PaginatedTable table = new PaginatedTable(driver, By.tagName("table"));
+                    ReconciliationReport report = new ReconciliationEngine("containerId", List.of())
+                            .reconcile(table.stream().map(TableRow::toMap).iterator(), export);
+                    System.out.println("Reconciliation: " + report);
+                }
+            } finally {
+                driver.quit();
+            }
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.saddy.automation;
 
+import com.saddy.framework.screenshots.ScreenshotStore;
 import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -33,13 +34,13 @@ public class ScreenshotDemo {
         FileUtils.copyFile(src, dest);
     }
 
+//    Stored by content: a capture that looks like an earlier one (same page, other timestamp) reuses its file
+//    instead of writing another full PNG. See ScreenshotStore for the quota and compression settings.
     static void captureCompleteScreen(String screenName, WebDriver driver) {
         TakesScreenshot ts = (TakesScreenshot) driver;
         try {
-            File source = ts.getScreenshotAs(OutputType.FILE);
-            File destination = new File(filePath + "/" + screenName + ".png");
-            FileUtils.copyFile(source, destination);
-            System.out.println("Screenshot saved to: " + filePath);
+            ScreenshotStore.Stored stored = ScreenshotStore.getDefault().store(screenName, ts.getScreenshotAs(OutputType.BYTES));
+            System.out.println("Screenshot saved to: " + stored.blob() + (stored.deduplicated() ? " (already stored)" : ""));
         } catch (Exception e) {
             System.err.println("Error taking screenshot: " + e.getMessage());
         }
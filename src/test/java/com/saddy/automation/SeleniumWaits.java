@@ -1,5 +1,6 @@
 package com.saddy.automation;
 
+import com.saddy.framework.pages.MutationWait;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
@@ -24,6 +25,7 @@ public class SeleniumWaits {
 //        useImplicitWait();
 //        useExplicitWait();
         fluentWaitDemo();
+//        mutationWaitDemo();
 
         Thread.sleep(2000);
         driver.quit();
@@ -39,6 +41,14 @@ public class SeleniumWaits {
                 "data");
     }
 
+//    Same wait as above without polling: the browser reports back as soon as a DOM change makes the element clickable
+    static void mutationWaitDemo() {
+        MutationWait wait = new MutationWait(driver, Duration.ofSeconds(70));
+
+        wait.clickable(By.id("username")).sendKeys("Test " +
+                "data");
+    }
+
     static void useExplicitWait() {
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
 
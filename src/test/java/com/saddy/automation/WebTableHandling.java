@@ -1,8 +1,11 @@
 package com.saddy.automation;
 
+import com.saddy.framework.pages.PaginatedTable;
+import com.saddy.framework.pages.TableRow;
+import com.saddy.framework.pages.TableSnapshot;
+import com.saddy.framework.pages.WebTable;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.Select;
 
@@ -41,20 +44,26 @@ public class WebTableHandling {
 //            System.out.println("Column Text: " + col.getText());
 //        }
 
-        List<WebElement> cols = driver.findElements(By.xpath("//tbody//td[.='CONT003']/../td"));
-        System.out.println("Total columns in the row with CONT003: " + cols.size());
-//        for (WebElement col : cols) {
-//            System.out.println("Column Text: " + col.getText());
-//        }
+//        One script call reads the whole table; the lookups below run in memory
+        WebTable table = new WebTable(driver, By.tagName("table"));
+        TableSnapshot snapshot = table.snapshot("containerId");
 
-        int colCount = cols.size();
+        TableRow container3 = snapshot.byKey("CONT003").orElseThrow();
+        System.out.println("Total columns in the row with CONT003: " + container3.cells().size());
+        container3.toMap().forEach((column, text) -> System.out.println(column + " Text: " + text));
 
-        for (int i = 1; i <= colCount; i++) {
-            String cellXpath = "//tbody//td[.='CONT003']/../td[" + i + "]";
-            WebElement cell = driver.findElement(By.xpath(cellXpath));
-            System.out.println("Column " + i + " Text: " + cell.getText());
+        List<TableRow> inTransit = snapshot.where("status", "In Transit");
+        System.out.println("Total containers in transit: " + inTransit.size());
+        for (TableRow row : inTransit) {
+            System.out.println("Container ID: " + row.get("containerId"));
         }
 
+//        Every page, read lazily: the next page loads while the rows of the current one are processed
+        PaginatedTable allPages = new PaginatedTable(driver, By.tagName("table"))
+                .rowsPerPage(By.id("rows-per-page"), "50");
+        long delivered = allPages.stream().filter(row -> "Delivered".equals(row.get("status"))).count();
+        System.out.println("Delivered containers across all pages: " + delivered);
+
         driver.quit();
     }
 }
@@ -0,0 +1,23 @@
+package com.saddy.framework.auth;
+
+import org.openqa.selenium.Cookie;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything a browser needs to look logged in: cookies, web storage and the page the login landed on.
+ */
+public record AuthState(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage,
+                        String landingUrl, Instant capturedAt) {
+
+    public boolean isExpired(Instant now, long ttlSeconds) {
+        if (capturedAt.plusSeconds(ttlSeconds).isBefore(now)) {
+            return true;
+        }
+        Date date = Date.from(now);
+        return cookies.stream().anyMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().before(date));
+    }
+}
@@ -0,0 +1,181 @@
+package com.saddy.framework.auth;
+
+import com.saddy.framework.driver.DriverPool;
+import com.saddy.framework.pages.LoginPage;
+import com.saddy.framework.pages.RegistrationPage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Logs in through the UI once per credential set, keeps the resulting cookies and web storage and
+ * restores them into later sessions, so a test gets a logged-in {@link RegistrationPage} with a single
+ * navigation instead of the full {@link LoginPage#login(String, String)} flow.
+ * <p>
+ * A restored state is checked before it is used. When the check fails the entry is invalidated, the
+ * registered invalidation hooks are called, the restored cookies and storage are cleared and the UI login
+ * runs again from the home page. Entries also expire after {@code auth.cache.ttlSeconds} (default 1800) or
+ * when one of their cookies expires.
+ */
+public class AuthStateCache {
+    private static final Logger logger = LogManager.getLogger(AuthStateCache.class);
+
+    private static final String CAPTURE_STORAGE_SCRIPT = """
+            var dump = function (storage) {
+                var result = {};
+                for (var i = 0; i < storage.length; i++) {
+                    var key = storage.key(i);
+                    result[key] = storage.getItem(key);
+                }
+                return result;
+            };
+            return {local: dump(window.localStorage), session: dump(window.sessionStorage)};
+            """;
+    private static final String RESTORE_STORAGE_SCRIPT = """
+            var local = arguments[0], session = arguments[1];
+            Object.keys(local).forEach(function (key) { window.localStorage.setItem(key, local[key]); });
+            Object.keys(session).forEach(function (key) { window.sessionStorage.setItem(key, session[key]); });
+            """;
+    private static final String CLEAR_STORAGE_SCRIPT = "window.localStorage.clear(); window.sessionStorage.clear();";
+
+    private static final AuthStateCache INSTANCE = new AuthStateCache(driver -> new RegistrationPage(driver).isLoaded());
+
+    private final Map<String, AuthState> states = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> invalidationHooks = new CopyOnWriteArrayList<>();
+    private final Predicate<WebDriver> loggedInCheck;
+    private final long ttlSeconds = Long.getLong("auth.cache.ttlSeconds", 1800);
+
+    public AuthStateCache(Predicate<WebDriver> loggedInCheck) {
+        this.loggedInCheck = loggedInCheck;
+    }
+
+    public static AuthStateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the registration page logged in as {@code userId}, restoring a cached state when one exists.
+     * The driver is expected to be on the application (as pooled sessions are).
+     */
+    public RegistrationPage loginAs(WebDriver driver, String userId, String pwd) {
+        String key = key(userId, pwd);
+        AuthState state = states.get(key);
+        if (state != null && state.isExpired(Instant.now(), ttlSeconds)) {
+            invalidate(key, "expired");
+            state = null;
+        }
+        if (state != null) {
+            if (restore(driver, state)) {
+                return new RegistrationPage(driver);
+            }
+            invalidate(key, "restored state is not logged in");
+            clearRestoredState(driver);
+        }
+        RegistrationPage registrationPage = new LoginPage(driver).login(userId, pwd);
+        if (loggedInCheck.test(driver)) {
+            states.put(key, capture(driver));
+            logger.debug("Cached login state for {}", userId);
+        }
+        return registrationPage;
+    }
+
+    /**
+     * Drops the cached state of a user, e.g. after the application logged the session out.
+     */
+    public void invalidate(String userId) {
+        states.keySet().stream()
+                .filter(key -> key.startsWith(userId + '\u0000'))
+                .toList()
+                .forEach(key -> invalidate(key, "requested by test"));
+    }
+
+    public void invalidateAll() {
+        states.clear();
+    }
+
+    /**
+     * Registers a callback that receives the user id every time one of its states is thrown away.
+     */
+    public void onInvalidate(Consumer<String> hook) {
+        invalidationHooks.add(hook);
+    }
+
+    private void invalidate(String key, String reason) {
+        String userId = key.substring(0, key.indexOf('\u0000'));
+        logger.info("Invalidating cached login of {}: {}", userId, reason);
+        states.remove(key);
+        invalidationHooks.forEach(hook -> hook.accept(userId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AuthState capture(WebDriver driver) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        return new AuthState(Set.copyOf(driver.manage().getCookies()),
+                toStrings((Map<String, Object>) storage.get("local")),
+                toStrings((Map<String, Object>) storage.get("session")),
+                driver.getCurrentUrl(), Instant.now());
+    }
+
+    private boolean restore(WebDriver driver, AuthState state) {
+        try {
+            for (Cookie cookie : state.cookies()) {
+                driver.manage().addCookie(cookie);
+            }
+            ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, state.localStorage(), state.sessionStorage());
+            driver.get(state.landingUrl());
+            return loggedInCheck.test(driver);
+        } catch (WebDriverException e) {
+            logger.debug("Could not restore login state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // The failed restore left its cookies and storage behind and the browser on its landing page, so the UI
+    // login starts again from a clean home page. Storage is cleared where it was injected and again after landing.
+    private static void clearRestoredState(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        } catch (WebDriverException e) {
+            logger.debug("Could not clear storage before leaving {}: {}", driver.getCurrentUrl(), e.getMessage());
+        }
+        driver.manage().deleteAllCookies();
+        driver.get(DriverPool.BASE_URL);
+        ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+    }
+
+    private static Map<String, String> toStrings(Map<String, Object> values) {
+        Map<String, String> result = new HashMap<>();
+        if (values != null) {
+            values.forEach((key, value) -> result.put(key, String.valueOf(value)));
+        }
+        return result;
+    }
+
+    // The password is part of the key so a wrong password never reuses a good login. It is hashed so the
+    // cache does not hold passwords, with SHA-256 so that two passwords never share an entry.
+    private static String key(String userId, String pwd) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(pwd.getBytes(StandardCharsets.UTF_8));
+            return userId + '\u0000' + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.saddy.framework.benchmarks;
+
+import com.saddy.framework.data.MappedCsvReader;
+import com.saddy.framework.data.ShipmentColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a generated shipment export (same layout as {@code data/shipment-report.csv}) three ways:
+ * the usual {@code readLine().split(",")}, the {@link MappedCsvReader} cursor and a full {@link ShipmentColumns}
+ * load. Each benchmark sums the weights so the work cannot be optimised away.
+ * <p>
+ * Run the main method, or add {@code -prof gc} in the options to compare allocation per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShipmentCsvBenchmark {
+    @Param({"1000000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeExport() throws IOException {
+        file = Files.createTempFile("shipments-", ".csv");
+        String[] statuses = {"In Transit", "Delivered", "Delayed", "At Port"};
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("containerId,originPort,destinationPort,status,shipmentDate,weightKg,volumeM3,shipper,consignee,valueUSD\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("\"CONT%07d\",\"Shanghai\",\"Rotterdam\",\"%s\",\"%s\",\"%d\",\"%d\",\"Global Logistics\",\"Euro Imports\",\"%d\"\n"
+                        .formatted(i, statuses[i % statuses.length], start.plusDays(i % 365), 10_000 + i % 5_000, 20 + i % 40, 40_000 + i % 20_000));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteExport() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long readLineSplit() throws IOException {
+        long total = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] cells = line.split(",");
+                total += Long.parseLong(cells[5].replace("\"", ""));
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long mappedCursor() throws IOException {
+        long total = 0;
+        try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+            int weight = reader.columnIndex("weightKg");
+            while (reader.next()) {
+                total += reader.getLong(weight);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long mappedColumns() throws IOException {
+        long total = 0;
+        try (ShipmentColumns columns = ShipmentColumns.load(file)) {
+            for (int row = 0; row < columns.size(); row++) {
+                total += columns.weightKg(row);
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ShipmentCsvBenchmark.class.getSimpleName()).build()).run();
+    }
+}
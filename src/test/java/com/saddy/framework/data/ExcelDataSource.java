@@ -0,0 +1,337 @@
+package com.saddy.framework.data;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Reads one sheet of an .xlsx workbook as a stream of rows for TestNG data providers, without building the
+ * workbook in memory.
+ * <p>
+ * The sheet XML is parsed with POI's SAX event model on a virtual thread and handed to the consumer through a
+ * small bounded queue. The first rows reach the test while the rest of the sheet is still being parsed, and
+ * memory stays flat however long the sheet is. The first row is the header; columns are picked by header name,
+ * ignoring case, spaces and punctuation. Values are the cell text as Excel shows it.
+ * <p>
+ * The shared strings and styles of a workbook are read once and reused by every provider that opens the
+ * same file, until the file changes.
+ */
+public class ExcelDataSource {
+    private static final int QUEUE_CAPACITY = 256;
+    private static final Object END = new Object();
+    private static final Cleaner CLEANER = Cleaner.create();
+    // One entry per workbook path, replaced when the file changes
+    private static final Map<Path, WorkbookParts> PARTS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final String sheet;
+
+    private ExcelDataSource(Path file, String sheet) {
+        this.file = file;
+        this.sheet = sheet;
+    }
+
+    public static ExcelDataSource open(Path file, String sheet) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No workbook at " + file.toAbsolutePath());
+        }
+        return new ExcelDataSource(file, sheet);
+    }
+
+    /**
+     * Rows as data provider parameters, one element per requested column in the given order.
+     * Without columns, every header column is returned.
+     */
+    public RowIterator<Object[]> rows(String... columns) {
+        return new RowIterator<>(columns, (headers, values) -> values);
+    }
+
+    /**
+     * Rows as header to value maps, e.g. for a data provider that passes the whole row to the test.
+     */
+    public RowIterator<Map<String, String>> maps() {
+        return new RowIterator<>(new String[0], (headers, values) -> {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < headers.size(); i++) {
+                row.put(headers.get(i), (String) values[i]);
+            }
+            return row;
+        });
+    }
+
+    // Data provider friendly form of maps(): every row becomes a single Map parameter.
+    public Iterator<Object[]> mapsAsParameters() {
+        RowIterator<Map<String, String>> maps = maps();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return maps.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{maps.next()};
+            }
+        };
+    }
+
+    private interface RowMapper<T> {
+        T map(List<String> headers, Object[] values);
+    }
+
+    /**
+     * Lazy iterator over the rows. Closing it stops the parser when a consumer is done before the end; an
+     * iterator that is dropped without being closed stops its parser once it has been garbage collected.
+     */
+    public final class RowIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Parser<T> parser;
+        private final Cleaner.Cleanable cleanable;
+        private Object next;
+
+        private RowIterator(String[] columns, RowMapper<T> mapper) {
+            parser = new Parser<>(columns, mapper);
+            // the parser thread only knows the parser, so it does not keep this iterator reachable
+            cleanable = CLEANER.register(this, parser::stop);
+            Thread.ofVirtual().name("excel-" + file.getFileName() + "-" + sheet).start(parser::parse);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = parser.queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while reading " + file, e);
+                }
+            }
+            if (next instanceof RuntimeException e) {
+                next = END;
+                throw e;
+            }
+            return next != END;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row = (T) next;
+            next = null;
+            return row;
+        }
+
+        /**
+         * The header row, once {@link #hasNext()} has been called. Empty for an empty sheet.
+         */
+        public List<String> headers() {
+            List<String> headers = parser.headers;
+            return headers == null ? List.of() : headers;
+        }
+
+        @Override
+        public void close() {
+            cleanable.clean();
+        }
+    }
+
+    // The parsing side of a RowIterator, run on its own virtual thread.
+    private final class Parser<T> {
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final String[] columns;
+        private final RowMapper<T> mapper;
+        private volatile boolean stopped;
+        private volatile List<String> headers;
+
+        private Parser(String[] columns, RowMapper<T> mapper) {
+            this.columns = columns;
+            this.mapper = mapper;
+        }
+
+        private void stop() {
+            stopped = true;
+            queue.clear();
+        }
+
+        private void parse() {
+            try {
+                publish(parseSheet());
+            } catch (Stopped e) {
+                // the consumer closed or dropped the iterator
+            }
+        }
+
+        // END when the sheet was read completely, otherwise the exception for the consumer
+        private Object parseSheet() {
+            OPCPackage pkg = null;
+            try {
+                // read-only packages are released with revert(); close() would try to save them
+                pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+                WorkbookParts parts = partsOf(pkg);
+                XSSFReader reader = new XSSFReader(pkg);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while (sheets.hasNext()) {
+                    try (InputStream sheetData = sheets.next()) {
+                        if (sheets.getSheetName().equalsIgnoreCase(sheet)) {
+                            XMLReader xml = XMLHelper.newXMLReader();
+                            xml.setContentHandler(new XSSFSheetXMLHandler(parts.styles(), null, parts.strings(),
+                                    new RowHandler(), new DataFormatter(), false));
+                            xml.parse(new InputSource(sheetData));
+                            return END;
+                        }
+                    }
+                }
+                return new IllegalArgumentException("No sheet '%s' in %s".formatted(sheet, file));
+            } catch (Stopped e) {
+                throw e;
+            } catch (IOException e) {
+                return new UncheckedIOException("Could not read " + file, e);
+            } catch (SAXException e) {
+                return e.getCause() instanceof RuntimeException cause ? cause
+                        : new IllegalStateException("Could not parse sheet '%s' of %s".formatted(sheet, file), e);
+            } catch (OpenXML4JException | ParserConfigurationException e) {
+                return new IllegalStateException("Could not open %s".formatted(file), e);
+            } catch (RuntimeException e) {
+                return e;
+            } finally {
+                if (pkg != null) {
+                    pkg.revert();
+                }
+            }
+        }
+
+        private void publish(Object item) {
+            try {
+                while (!stopped) {
+                    if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new Stopped();
+        }
+
+        private class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+            private List<String> row = new ArrayList<>();
+            private int[] selected;
+            private int nextColumn;
+
+            @Override
+            public void startRow(int rowNum) {
+                row = new ArrayList<>();
+                nextColumn = 0;
+            }
+
+            @Override
+            public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+                int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+                while (row.size() < column) {
+                    row.add("");
+                }
+                row.add(formattedValue == null ? "" : formattedValue);
+                nextColumn = column + 1;
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+                if (row.stream().allMatch(String::isBlank)) {
+                    return;
+                }
+                if (headers == null) {
+                    headers = row.stream().map(String::trim).toList();
+                    selected = selectColumns();
+                    return;
+                }
+                Object[] values = new Object[selected.length];
+                for (int i = 0; i < selected.length; i++) {
+                    values[i] = selected[i] < row.size() ? row.get(selected[i]) : "";
+                }
+                publish(mapper.map(headers, values));
+            }
+
+            private int[] selectColumns() {
+                if (columns.length == 0) {
+                    return IntStream.range(0, headers.size()).toArray();
+                }
+                List<String> normalized = headers.stream().map(ReconciliationEngine::normalize).toList();
+                return Arrays.stream(columns).mapToInt(column -> {
+                    int index = normalized.indexOf(ReconciliationEngine.normalize(column));
+                    if (index < 0) {
+                        throw new IllegalArgumentException("No column '%s' in sheet '%s' of %s, headers are %s"
+                                .formatted(column, sheet, file.getFileName(), headers));
+                    }
+                    return index;
+                }).toArray();
+            }
+        }
+    }
+
+    private WorkbookParts partsOf(OPCPackage pkg) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        String version = Files.getLastModifiedTime(file).toMillis() + "/" + Files.size(file);
+        try {
+            return PARTS.compute(path, (k, cached) -> {
+                if (cached != null && cached.version().equals(version)) {
+                    return cached;
+                }
+                try {
+                    return new WorkbookParts(version, new ReadOnlySharedStringsTable(pkg), new XSSFReader(pkg).getStylesTable());
+                } catch (IOException | SAXException | OpenXML4JException e) {
+                    throw new IllegalStateException("Could not read the shared strings and styles of " + file, e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    private record WorkbookParts(String version, ReadOnlySharedStringsTable strings, StylesTable styles) {
+    }
+
+    // Unwinds the SAX parser when nobody is reading any more.
+    private static class Stopped extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Stopped() {
+            super(null, null, false, false);
+        }
+    }
+}
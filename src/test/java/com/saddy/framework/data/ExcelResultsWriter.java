@@ -0,0 +1,136 @@
+package com.saddy.framework.data;
+
+import com.saddy.enumdemo.TestStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Appends test results to an .xlsx workbook with constant memory, however many results there are.
+ * <p>
+ * Rows go into an {@link SXSSFWorkbook}: only the last {@code window} rows stay on the heap, older ones are
+ * flushed to a compressed temp file, and every {@code flushEvery} rows the whole window is flushed too.
+ * {@link #close()} assembles the workbook next to the target file and moves it into place, so a half written
+ * file is never left behind. Appends are synchronized and may come from any number of test threads.
+ */
+public class ExcelResultsWriter implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ExcelResultsWriter.class);
+    private static final String[] HEADERS = {"Test", "Parameters", "Status", "Duration (ms)", "Failure", "Thread"};
+    private static final int MAX_CELL_LENGTH = 32_767;
+
+    private final Path file;
+    private final int flushEvery;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private int nextRow;
+    private boolean closed;
+
+    public ExcelResultsWriter(Path file, int window, int flushEvery) {
+        this.file = file;
+        this.flushEvery = Math.max(window, flushEvery);
+        this.workbook = new SXSSFWorkbook(null, window, true, false);
+        this.sheet = workbook.createSheet("results");
+        writeHeader();
+    }
+
+    public static ExcelResultsWriter open(Path file) {
+        return new ExcelResultsWriter(file, Integer.getInteger("results.excel.window", 100),
+                Integer.getInteger("results.excel.flushEvery", 1_000));
+    }
+
+    public synchronized void append(String test, String parameters, TestStatus status, long durationMillis, String failure) {
+        if (closed) {
+            throw new IllegalStateException("Results workbook " + file + " is already closed");
+        }
+        Row row = sheet.createRow(nextRow++);
+        row.createCell(0).setCellValue(test);
+        row.createCell(1).setCellValue(truncate(parameters));
+        row.createCell(2).setCellValue(status.name());
+        row.createCell(3).setCellValue(durationMillis);
+        row.createCell(4).setCellValue(truncate(failure));
+        row.createCell(5).setCellValue(Thread.currentThread().getName());
+        if (nextRow % flushEvery == 0) {
+            flushRows();
+        }
+    }
+
+    public synchronized int getResultCount() {
+        return nextRow - 1;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (nextRow > 1) {
+                sheet.setAutoFilter(new CellRangeAddress(0, nextRow - 1, 0, HEADERS.length - 1));
+            }
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path partial = Files.createTempFile(parent, file.getFileName().toString(), ".partial");
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                workbook.write(out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Wrote {} test results to {}", nextRow - 1, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write test results to " + file, e);
+        } finally {
+            try {
+                // Also deletes the temp files of the flushed rows
+                workbook.close();
+            } catch (IOException e) {
+                logger.warn("Could not clean up the temp files of {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void writeHeader() {
+        CellStyle bold = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        bold.setFont(font);
+        Row header = sheet.createRow(nextRow++);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+            header.getCell(i).setCellStyle(bold);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+
+    private void flushRows() {
+        try {
+            sheet.flushRows();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not flush test results of " + file, e);
+        }
+    }
+
+    // Excel refuses cells longer than this, which long stack traces easily are
+    private static String truncate(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() <= MAX_CELL_LENGTH ? text : text.substring(0, MAX_CELL_LENGTH - 3) + "...";
+    }
+}
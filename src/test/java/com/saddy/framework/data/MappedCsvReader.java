@@ -0,0 +1,311 @@
+package com.saddy.framework.data;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forward-only CSV cursor over a memory-mapped file.
+ * <p>
+ * {@link #next()} only records where each field of the record starts and ends in the mapping; nothing is
+ * copied or allocated per row. Numbers and dates are parsed straight from the bytes, and a field becomes a
+ * {@code String} only when {@link #getString} asks for it. Fields may be quoted, with doubled quotes and
+ * line breaks inside the quotes. The mapping is a {@link MemorySegment}, so files larger than 2 GB work
+ * too. A reader belongs to the thread that opened it, and the mapping is released on {@link #close()}.
+ */
+public class MappedCsvReader implements AutoCloseable {
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final Arena arena;
+    private final MemorySegment data;
+    private final long size;
+    private final List<String> headers;
+    private long position;
+    private long recordStart;
+    private long record = -1;
+    private int fieldCount;
+    private long[] starts = new long[16];
+    private long[] ends = new long[16];
+    private boolean[] escaped = new boolean[16];
+
+    private MappedCsvReader(Arena arena, MemorySegment data) {
+        this.arena = arena;
+        this.data = data;
+        this.size = data.byteSize();
+        skipBom();
+        List<String> names = new ArrayList<>();
+        if (readRecord()) {
+            for (int i = 0; i < fieldCount; i++) {
+                names.add(getString(i));
+            }
+        }
+        this.headers = List.copyOf(names);
+    }
+
+    public static MappedCsvReader open(Path file) throws IOException {
+        Arena arena = Arena.ofConfined();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedCsvReader(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    public List<String> headers() {
+        return headers;
+    }
+
+    public int columnIndex(String header) {
+        int index = headers.indexOf(header);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column '%s' in %s".formatted(header, headers));
+        }
+        return index;
+    }
+
+    /**
+     * Moves to the next record. Returns false at the end of the file.
+     */
+    public boolean next() {
+        boolean found = readRecord();
+        if (found) {
+            record++;
+        }
+        return found;
+    }
+
+    /**
+     * Re-reads the record starting at a byte offset previously returned by {@link #recordOffset()}.
+     * The cursor continues after that record.
+     */
+    public void seek(long recordOffset, long recordNumber) {
+        position = recordOffset;
+        record = recordNumber - 1;
+        readRecord();
+    }
+
+    public long recordOffset() {
+        return recordStart;
+    }
+
+    public long byteSize() {
+        return size;
+    }
+
+    // 1-based data record number, for error messages
+    public long recordNumber() {
+        return record + 1;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public long getLong(int field) {
+        long pos = start(field);
+        long end = ends[field];
+        boolean negative = pos < end && data.get(ValueLayout.JAVA_BYTE, pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        if (pos == end) {
+            throw numberError(field);
+        }
+        // accumulated as a negative number so Long.MIN_VALUE fits; more than 19 digits overflows
+        long value = 0;
+        try {
+            for (; pos < end; pos++) {
+                int digit = data.get(ValueLayout.JAVA_BYTE, pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw numberError(field);
+                }
+                value = Math.subtractExact(Math.multiplyExact(value, 10L), digit);
+            }
+            return negative ? value : Math.negateExact(value);
+        } catch (ArithmeticException e) {
+            throw numberError(field);
+        }
+    }
+
+    public int getInt(int field) {
+        return Math.toIntExact(getLong(field));
+    }
+
+    /**
+     * An ISO {@code yyyy-MM-dd} date as days since 1970-01-01, like {@code LocalDate.toEpochDay()}.
+     */
+    public int getEpochDay(int field) {
+        long pos = start(field);
+        if (ends[field] - pos != 10 || data.get(ValueLayout.JAVA_BYTE, pos + 4) != '-'
+                || data.get(ValueLayout.JAVA_BYTE, pos + 7) != '-') {
+            throw new IllegalArgumentException("Record %d: '%s' is not a yyyy-MM-dd date".formatted(recordNumber(), getString(field)));
+        }
+        return epochDay(digits(pos, 4), digits(pos + 5, 2), digits(pos + 8, 2));
+    }
+
+    public String getString(int field) {
+        long start = start(field);
+        byte[] bytes = data.asSlice(start, ends[field] - start).toArray(ValueLayout.JAVA_BYTE);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return escaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    /**
+     * Compares a field with an ASCII/UTF-8 value without creating a String.
+     */
+    public boolean fieldEquals(int field, byte[] value) {
+        long start = start(field);
+        if (escaped[field] || ends[field] - start != value.length) {
+            return escaped[field] && Arrays.equals(getString(field).getBytes(StandardCharsets.UTF_8), value);
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (data.get(ValueLayout.JAVA_BYTE, start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Byte offset and length of a field inside the mapping. Lets callers keep a reference to a value instead
+     * of a copy of it, as long as the reader is open.
+     */
+    public long fieldOffset(int field) {
+        return start(field);
+    }
+
+    public int fieldLength(int field) {
+        return (int) (ends[field] - start(field));
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long start(int field) {
+        if (field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Record %d has %d fields, field %d requested".formatted(recordNumber(), fieldCount, field));
+        }
+        return starts[field];
+    }
+
+    private boolean readRecord() {
+        while (position < size && isLineBreak(data.get(ValueLayout.JAVA_BYTE, position))) {
+            position++;
+        }
+        if (position >= size) {
+            fieldCount = 0;
+            return false;
+        }
+        fieldCount = 0;
+        recordStart = position;
+        while (true) {
+            ensureCapacity();
+            if (position >= size) {
+                // the file ends right after a comma: the last field is empty
+                starts[fieldCount] = size;
+                ends[fieldCount] = size;
+                escaped[fieldCount] = false;
+                fieldCount++;
+                return true;
+            }
+            boolean quoted = data.get(ValueLayout.JAVA_BYTE, position) == QUOTE;
+            boolean hasEscapes = false;
+            long start = quoted ? position + 1 : position;
+            long pos = start;
+            long end;
+            if (quoted) {
+                while (true) {
+                    if (pos >= size) {
+                        throw new IllegalArgumentException("Record %d: unterminated quoted field".formatted(record + 2));
+                    }
+                    if (data.get(ValueLayout.JAVA_BYTE, pos) == QUOTE) {
+                        if (pos + 1 < size && data.get(ValueLayout.JAVA_BYTE, pos + 1) == QUOTE) {
+                            hasEscapes = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                end = pos;
+                pos++; // closing quote
+            } else {
+                byte b;
+                while (pos < size && (b = data.get(ValueLayout.JAVA_BYTE, pos)) != COMMA && !isLineBreak(b)) {
+                    pos++;
+                }
+                end = pos;
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+            escaped[fieldCount] = hasEscapes;
+            fieldCount++;
+            if (pos < size && data.get(ValueLayout.JAVA_BYTE, pos) == COMMA) {
+                position = pos + 1;
+                continue;
+            }
+            position = pos;
+            return true;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+    }
+
+    private void skipBom() {
+        if (size >= 3 && data.get(ValueLayout.JAVA_BYTE, 0) == (byte) 0xEF
+                && data.get(ValueLayout.JAVA_BYTE, 1) == (byte) 0xBB && data.get(ValueLayout.JAVA_BYTE, 2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    private int digits(long pos, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = data.get(ValueLayout.JAVA_BYTE, pos + i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Record %d: not a digit at byte %d".formatted(recordNumber(), pos + i));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private IllegalArgumentException numberError(int field) {
+        return new NumberFormatException("Record %d: '%s' is not a whole number".formatted(recordNumber(), getString(field)));
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == LF || b == CR;
+    }
+
+    // Days from civil (proleptic Gregorian), same result as LocalDate.of(year, month, day).toEpochDay()
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
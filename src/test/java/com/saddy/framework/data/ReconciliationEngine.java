@@ -0,0 +1,231 @@
+package com.saddy.framework.data;
+
+import com.saddy.framework.data.ReconciliationReport.CellMismatch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Compares two streams of rows keyed by one column, e.g. the shipment table in the UI against the exported CSV.
+ * <p>
+ * Both sides are read in turn, one row at a time. A row waits in a pending map only until its counterpart
+ * arrives from the other side, where it is compared cell by cell and dropped. When both sides come in roughly
+ * the same order, memory stays proportional to the differences (plus the ordering skew) rather than to the
+ * number of rows. What is still pending at the end is missing from, or extra in, the actual side.
+ * <p>
+ * Column names are matched ignoring case, spaces and punctuation, so a {@code "Container ID"} table header
+ * lines up with a {@code containerId} CSV column. Cells are equal when their trimmed text is equal, or when
+ * both are numbers of the same value ({@code "15,000"} and {@code "15000"}); {@link #compareWith} overrides
+ * that per column. A key seen again after its row was matched is reported as missing or extra rather than
+ * as a duplicate, since matched keys are not kept. A row without a value in the key column is reported as a
+ * key error and not compared.
+ */
+public class ReconciliationEngine {
+    private final String keyColumn;
+    private final String keyColumnName;
+    private final List<String> columns;
+    private final Map<String, BiPredicate<String, String>> comparators = new HashMap<>();
+    private int maxReported = 1000;
+
+    /**
+     * @param columns the columns to compare; empty compares every column both sides have
+     */
+    public ReconciliationEngine(String keyColumn, List<String> columns) {
+        this.keyColumn = normalize(keyColumn);
+        this.keyColumnName = keyColumn;
+        this.columns = columns.stream().map(ReconciliationEngine::normalize).toList();
+    }
+
+    public ReconciliationEngine compareWith(String column, BiPredicate<String, String> comparator) {
+        comparators.put(normalize(column), comparator);
+        return this;
+    }
+
+    public ReconciliationEngine maxReported(int maxReported) {
+        this.maxReported = maxReported;
+        return this;
+    }
+
+    public ReconciliationReport reconcile(Iterator<Map<String, String>> expected, Iterator<Map<String, String>> actual) {
+        return new Run(expected, actual).execute();
+    }
+
+    private class Run {
+        private final Side expected;
+        private final Side actual;
+        private List<String> compared;
+        private BiPredicate<String, String>[] comparatorsByColumn;
+        private long matched;
+        private long mismatchedRows;
+        private long duplicateCount;
+        private long keyErrorCount;
+        private final List<CellMismatch> mismatches = new ArrayList<>();
+        private final List<String> duplicates = new ArrayList<>();
+        private final List<String> keyErrors = new ArrayList<>();
+        private int peakPending;
+
+        Run(Iterator<Map<String, String>> expected, Iterator<Map<String, String>> actual) {
+            this.expected = new Side("expected", expected);
+            this.actual = new Side("actual", actual);
+        }
+
+        @SuppressWarnings("unchecked")
+        ReconciliationReport execute() {
+            Map<String, String> firstExpected = expected.rows.hasNext() ? expected.rows.next() : null;
+            Map<String, String> firstActual = actual.rows.hasNext() ? actual.rows.next() : null;
+            compared = columnsToCompare(firstExpected, firstActual);
+            comparatorsByColumn = compared.stream()
+                    .map(column -> comparators.getOrDefault(column, ReconciliationEngine::sameValue))
+                    .toArray(BiPredicate[]::new);
+            if (firstExpected != null) {
+                accept(expected, actual, firstExpected);
+            }
+            if (firstActual != null) {
+                accept(actual, expected, firstActual);
+            }
+            while (expected.rows.hasNext() || actual.rows.hasNext()) {
+                if (expected.rows.hasNext()) {
+                    accept(expected, actual, expected.rows.next());
+                }
+                if (actual.rows.hasNext()) {
+                    accept(actual, expected, actual.rows.next());
+                }
+            }
+            return new ReconciliationReport(expected.count, actual.count, matched,
+                    expected.pending.size(), actual.pending.size(), mismatchedRows, duplicateCount, keyErrorCount,
+                    firstKeys(expected.pending), firstKeys(actual.pending), mismatches, duplicates, keyErrors, peakPending);
+        }
+
+        private List<String> columnsToCompare(Map<String, String> firstExpected, Map<String, String> firstActual) {
+            if (!columns.isEmpty()) {
+                return columns;
+            }
+            List<String> common = new ArrayList<>();
+            if (firstExpected != null && firstActual != null) {
+                List<String> actualColumns = firstActual.keySet().stream().map(ReconciliationEngine::normalize).toList();
+                firstExpected.keySet().stream().map(ReconciliationEngine::normalize)
+                        .filter(actualColumns::contains)
+                        .filter(column -> !column.equals(keyColumn))
+                        .forEach(common::add);
+            }
+            return common;
+        }
+
+        private void accept(Side side, Side other, Map<String, String> row) {
+            side.count++;
+            String key = side.key(row);
+            if (key == null) {
+                keyErrorCount++;
+                report(keyErrors, "%s row %d has no value in key column '%s'".formatted(side.name, side.count, keyColumnName));
+                return;
+            }
+            String[] cells = side.cells(row);
+            String[] counterpart = other.pending.remove(key);
+            if (counterpart != null) {
+                compare(key, side == expected ? cells : counterpart, side == expected ? counterpart : cells);
+                return;
+            }
+            if (side.pending.putIfAbsent(key, cells) != null) {
+                duplicateCount++;
+                report(duplicates, key);
+            }
+            peakPending = Math.max(peakPending, expected.pending.size() + actual.pending.size());
+        }
+
+        private void compare(String key, String[] expectedCells, String[] actualCells) {
+            boolean equal = true;
+            for (int i = 0; i < compared.size(); i++) {
+                if (!comparatorsByColumn[i].test(expectedCells[i], actualCells[i])) {
+                    equal = false;
+                    report(mismatches, new CellMismatch(key, compared.get(i), expectedCells[i], actualCells[i]));
+                }
+            }
+            if (equal) {
+                matched++;
+            } else {
+                mismatchedRows++;
+            }
+        }
+
+        private <T> void report(List<T> list, T entry) {
+            if (list.size() < maxReported) {
+                list.add(entry);
+            }
+        }
+
+        private List<String> firstKeys(Map<String, String[]> pending) {
+            return pending.keySet().stream().limit(maxReported).toList();
+        }
+
+        // One side of the comparison. Its header names are mapped to the compared columns on the first row.
+        private class Side {
+            private final String name;
+            private final Iterator<Map<String, String>> rows;
+            private final Map<String, String[]> pending = new LinkedHashMap<>();
+            private String keyHeader;
+            private String[] headers;
+            private long count;
+
+            Side(String name, Iterator<Map<String, String>> rows) {
+                this.name = name;
+                this.rows = rows;
+            }
+
+            // null when the row has no key column (or no value in it)
+            String key(Map<String, String> row) {
+                if (keyHeader == null) {
+                    keyHeader = headerFor(row, keyColumn);
+                }
+                String key = keyHeader == null ? null : row.get(keyHeader);
+                return key == null ? null : key.trim();
+            }
+
+            String[] cells(Map<String, String> row) {
+                if (headers == null) {
+                    headers = compared.stream().map(column -> headerFor(row, column)).toArray(String[]::new);
+                }
+                String[] cells = new String[headers.length];
+                for (int i = 0; i < headers.length; i++) {
+                    cells[i] = headers[i] == null ? null : row.get(headers[i]);
+                }
+                return cells;
+            }
+
+            private String headerFor(Map<String, String> row, String column) {
+                return row.keySet().stream().filter(header -> normalize(header).equals(column)).findFirst().orElse(null);
+            }
+        }
+    }
+
+    static boolean sameValue(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        String a = expected.trim();
+        String b = actual.trim();
+        if (a.equals(b)) {
+            return true;
+        }
+        BigDecimal x = asNumber(a);
+        BigDecimal y = asNumber(b);
+        return x != null && y != null && x.compareTo(y) == 0;
+    }
+
+    private static BigDecimal asNumber(String value) {
+        String digits = value.replace(",", "").replace("$", "");
+        if (digits.isEmpty() || !digits.matches("-?\\d*\\.?\\d+")) {
+            return null;
+        }
+        return new BigDecimal(digits);
+    }
+
+    static String normalize(String column) {
+        return column.replaceAll("[^A-Za-z0-9]", "").toLowerCase();
+    }
+}
@@ -0,0 +1,34 @@
+package com.saddy.framework.data;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link ReconciliationEngine} run. Counts cover every difference; the lists keep at most the
+ * engine's {@code maxReported} entries of each kind so a badly broken export cannot exhaust the heap.
+ *
+ * @param expectedRows rows read from the expected side (e.g. the UI table)
+ * @param actualRows   rows read from the actual side (e.g. the exported CSV)
+ * @param matchedRows  keys present on both sides with equal cells
+ * @param keyErrors    rows that had no value in the key column and could not be compared
+ * @param peakPending  most rows waiting for their counterpart at any one time, i.e. the memory used
+ */
+public record ReconciliationReport(long expectedRows, long actualRows, long matchedRows,
+                                   long missingCount, long extraCount, long mismatchedRows, long duplicateCount,
+                                   long keyErrorCount, List<String> missing, List<String> extra,
+                                   List<CellMismatch> mismatches, List<String> duplicates, List<String> keyErrors,
+                                   int peakPending) {
+
+    public record CellMismatch(String key, String column, String expected, String actual) {
+    }
+
+    public boolean isClean() {
+        return missingCount == 0 && extraCount == 0 && mismatchedRows == 0 && duplicateCount == 0 && keyErrorCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "expected rows: %d, actual rows: %d, matched: %d, missing: %d %s, extra: %d %s, mismatched rows: %d %s, duplicate keys: %d %s, key errors: %d %s, peak pending rows: %d"
+                .formatted(expectedRows, actualRows, matchedRows, missingCount, missing, extraCount, extra,
+                        mismatchedRows, mismatches, duplicateCount, duplicates, keyErrorCount, keyErrors, peakPending);
+    }
+}
@@ -0,0 +1,74 @@
+package com.saddy.framework.data;
+
+import java.util.Arrays;
+
+/**
+ * View of one row of a {@link SharedTestData} store. It holds no values itself; every getter decodes the
+ * field from off-heap memory, so a test only pays for the fields it reads.
+ */
+public record SharedRow(SharedTestData store, int row) {
+
+    public int fieldCount() {
+        return store.fieldCount(row);
+    }
+
+    public Object get(int field) {
+        return store.field(row, field);
+    }
+
+    public Object get(String column) {
+        return get(store.columnIndex(column));
+    }
+
+    public String getString(int field) {
+        Object value = get(field);
+        return value == null ? null : value.toString();
+    }
+
+    public String getString(String column) {
+        return getString(store.columnIndex(column));
+    }
+
+    public long getLong(int field) {
+        return switch (get(field)) {
+            case Number number -> number.longValue();
+            case String text -> Long.parseLong(text.trim());
+            case null, default -> throw new IllegalStateException("Field " + field + " of row " + row + " is not a number");
+        };
+    }
+
+    public long getLong(String column) {
+        return getLong(store.columnIndex(column));
+    }
+
+    public int getInt(int field) {
+        return Math.toIntExact(getLong(field));
+    }
+
+    // Strict like getLong: only a boolean or the text true/false is accepted
+    public boolean getBoolean(int field) {
+        return switch (get(field)) {
+            case Boolean flag -> flag;
+            case String text when text.trim().equalsIgnoreCase("true") -> true;
+            case String text when text.trim().equalsIgnoreCase("false") -> false;
+            case null, default -> throw new IllegalStateException("Field " + field + " of row " + row + " is not a boolean");
+        };
+    }
+
+    public boolean getBoolean(String column) {
+        return getBoolean(store.columnIndex(column));
+    }
+
+    public Object[] toArray() {
+        Object[] values = new Object[fieldCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "Row " + row + " " + Arrays.toString(toArray());
+    }
+}
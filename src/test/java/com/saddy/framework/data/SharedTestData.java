@@ -0,0 +1,302 @@
+package com.saddy.framework.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-only test data loaded once per JVM into off-heap memory and shared by every data provider that asks
+ * for it by name.
+ * <p>
+ * Rows are encoded one after another in a file that is then memory-mapped and deleted, so the data lives in
+ * the page cache instead of the heap. Each field is a type tag followed by its value: strings as a length and
+ * UTF-8 bytes, numbers and booleans in fixed width. A table of row offsets at the end gives direct access to
+ * any row. Readers get {@link SharedRow} flyweights of a reference and a row number. Values are decoded only
+ * when a test reads them, so parallel providers do not each keep their own copy of the dataset, and the heap
+ * stays flat however many workers iterate it.
+ */
+public final class SharedTestData {
+    private static final Logger logger = LogManager.getLogger(SharedTestData.class);
+    private static final Map<String, SharedTestData> STORES = new ConcurrentHashMap<>();
+    private static final int MAGIC = 0x53544431; // "STD1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte INT_VALUE = 3;
+    private static final byte DOUBLE_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+
+    private final String name;
+    private final MemorySegment data;
+    private final int rows;
+    private final long index;
+    private final List<String> columns;
+
+    private SharedTestData(String name, MemorySegment data, List<String> columns) {
+        if (data.byteSize() < HEADER_SIZE || data.get(INT, 0) != MAGIC || data.get(INT, 4) != VERSION) {
+            throw new IllegalStateException("Shared test data %s is not a version %d store".formatted(name, VERSION));
+        }
+        this.name = name;
+        this.data = data;
+        this.rows = data.get(INT, 8);
+        this.index = data.get(LONG, 16);
+        this.columns = columns;
+    }
+
+    /**
+     * The store with this name, loading it from the rows the first time. The supplier is only called once
+     * per JVM, even when several providers ask at the same moment. Asking for a loaded name with other
+     * columns fails rather than handing out rows of a different shape.
+     */
+    public static SharedTestData fromRows(String name, List<String> columns, Supplier<Iterator<Object[]>> rows) {
+        SharedTestData store = STORES.computeIfAbsent(name, key -> load(key, columns, rows.get()));
+        if (!store.columns.equals(columns)) {
+            throw new IllegalArgumentException("Shared test data '%s' was loaded with columns %s, not %s"
+                    .formatted(name, store.columns, columns));
+        }
+        return store;
+    }
+
+    public static SharedTestData fromArrays(String name, Supplier<Object[][]> rows) {
+        return fromRows(name, List.of(), () -> Arrays.asList(rows.get()).iterator());
+    }
+
+    public static SharedTestData fromTable(String name, TestDataTable table) {
+        return fromRows(name, table.headers(), () -> table.rows());
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    public int columnIndex(String column) {
+        int index = columns.indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column '%s' in %s".formatted(column, columns));
+        }
+        return index;
+    }
+
+    public SharedRow row(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows + " in " + name);
+        }
+        return new SharedRow(this, row);
+    }
+
+    /**
+     * One {@link SharedRow} parameter per row, for tests that read only the fields they need.
+     */
+    public Iterator<Object[]> views() {
+        return new RowIterator(false);
+    }
+
+    /**
+     * The decoded fields of each row as parameters, for existing tests with one parameter per field.
+     */
+    public Iterator<Object[]> parameters() {
+        return new RowIterator(true);
+    }
+
+    private class RowIterator implements Iterator<Object[]> {
+        private final boolean decode;
+        private int row;
+
+        RowIterator(boolean decode) {
+            this.decode = decode;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return row < rows;
+        }
+
+        @Override
+        public Object[] next() {
+            if (row >= rows) {
+                throw new NoSuchElementException();
+            }
+            SharedRow view = new SharedRow(SharedTestData.this, row++);
+            return decode ? view.toArray() : new Object[]{view};
+        }
+    }
+
+    int fieldCount(int row) {
+        return Short.toUnsignedInt(data.get(SHORT, rowStart(row)));
+    }
+
+    Object field(int row, int field) {
+        int count = fieldCount(row);
+        if (field < 0 || field >= count) {
+            throw new IndexOutOfBoundsException("Field " + field + " of " + count + " in row " + row + " of " + name);
+        }
+        long position = rowStart(row) + 2;
+        for (int i = 0; i < field; i++) {
+            position = skip(position);
+        }
+        return decode(position);
+    }
+
+    private long rowStart(int row) {
+        return data.get(LONG, index + 8L * row);
+    }
+
+    private long skip(long position) {
+        byte tag = data.get(ValueLayout.JAVA_BYTE, position);
+        return position + 1 + switch (tag) {
+            case NULL -> 0;
+            case STRING -> 4 + data.get(INT, position + 1);
+            case LONG_VALUE, DOUBLE_VALUE -> 8;
+            case INT_VALUE -> 4;
+            case BOOLEAN_VALUE -> 1;
+            default -> throw new IllegalStateException("Corrupt shared test data " + name + " at " + position);
+        };
+    }
+
+    private Object decode(long position) {
+        byte tag = data.get(ValueLayout.JAVA_BYTE, position);
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> {
+                int length = data.get(INT, position + 1);
+                yield new String(data.asSlice(position + 5, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+            }
+            case LONG_VALUE -> data.get(LONG, position + 1);
+            case DOUBLE_VALUE -> Double.longBitsToDouble(data.get(LONG, position + 1));
+            case INT_VALUE -> data.get(INT, position + 1);
+            case BOOLEAN_VALUE -> data.get(ValueLayout.JAVA_BYTE, position + 1) != 0;
+            default -> throw new IllegalStateException("Corrupt shared test data " + name + " at " + position);
+        };
+    }
+
+    // Streams the rows into a temp file (row offsets collected in a second temp file), then maps the result.
+    private static SharedTestData load(String name, List<String> columns, Iterator<Object[]> source) {
+        long start = System.nanoTime();
+        Path file = null;
+        Path offsets = null;
+        try {
+            file = Files.createTempFile("shared-test-data-", ".bin");
+            offsets = Files.createTempFile("shared-test-data-", ".idx");
+            int rows = 0;
+            long position = HEADER_SIZE;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+                 DataOutputStream index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(offsets), 1 << 16))) {
+                out.write(new byte[HEADER_SIZE]);
+                while (source.hasNext()) {
+                    Object[] row = source.next();
+                    if (row.length > 0xFFFF) {
+                        throw new IllegalArgumentException("Rows of " + name + " have more than 65535 fields");
+                    }
+                    index.writeLong(position);
+                    out.writeShort(row.length);
+                    position += 2;
+                    for (Object value : row) {
+                        position += write(out, value);
+                    }
+                    rows++;
+                }
+            }
+            long indexStart = position;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 FileChannel index = FileChannel.open(offsets, StandardOpenOption.READ)) {
+                index.transferTo(0, index.size(), channel);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(0).putLong(indexStart).flip();
+                channel.write(header, 0);
+                MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofShared());
+                logger.info("Loaded shared test data '{}': {} rows, {} KB off-heap in {} ms", name, rows,
+                        channel.size() / 1024, (System.nanoTime() - start) / 1_000_000);
+                return new SharedTestData(name, data, List.copyOf(columns));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load shared test data " + name, e);
+        } finally {
+            deleteQuietly(file);
+            deleteQuietly(offsets);
+        }
+    }
+
+    // Returns the number of bytes written, since DataOutputStream only counts up to 2 GB.
+    private static int write(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> {
+                out.writeByte(NULL);
+                return 1;
+            }
+            case String text -> {
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                out.writeByte(STRING);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                return 5 + bytes.length;
+            }
+            case Long number -> {
+                out.writeByte(LONG_VALUE);
+                out.writeLong(number);
+                return 9;
+            }
+            case Integer number -> {
+                out.writeByte(INT_VALUE);
+                out.writeInt(number);
+                return 5;
+            }
+            case Double number -> {
+                out.writeByte(DOUBLE_VALUE);
+                out.writeLong(Double.doubleToRawLongBits(number));
+                return 9;
+            }
+            case Boolean flag -> {
+                out.writeByte(BOOLEAN_VALUE);
+                out.writeByte(flag ? 1 : 0);
+                return 2;
+            }
+            default -> throw new IllegalArgumentException(
+                    "Shared test data holds strings, numbers and booleans, not " + value.getClass().getName());
+        }
+    }
+
+    // The mapping stays valid after the file is gone; on Windows the file has to wait for the exit.
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.saddy.framework.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * A shipment export ({@code data/shipment-report.csv} layout) parsed into primitive columns.
+ * <p>
+ * Weight, volume, value and date are parsed once into {@code long}/{@code int} arrays. Text columns are not
+ * copied: only the byte offset of each record is kept, and {@link #getString} re-reads that record from the
+ * mapped file when a value is asked for. The arrays are sized from the file length up front, so loading does
+ * not repeatedly copy them. The file stays mapped until {@link #close()}.
+ */
+public final class ShipmentColumns implements AutoCloseable {
+    public enum Text {
+        CONTAINER_ID("containerId"),
+        ORIGIN_PORT("originPort"),
+        DESTINATION_PORT("destinationPort"),
+        STATUS("status"),
+        SHIPPER("shipper"),
+        CONSIGNEE("consignee");
+
+        private final String header;
+
+        Text(String header) {
+            this.header = header;
+        }
+
+        public String header() {
+            return header;
+        }
+    }
+
+    private final MappedCsvReader reader;
+    private final int[] textFields = new int[Text.values().length];
+    private int size;
+    private long[] recordOffsets;
+    private long[] weightKg;
+    private int[] volumeM3;
+    private long[] valueUsd;
+    private int[] shipmentDay;
+
+    private ShipmentColumns(MappedCsvReader reader) {
+        this.reader = reader;
+        for (Text text : Text.values()) {
+            textFields[text.ordinal()] = reader.columnIndex(text.header());
+        }
+    }
+
+    public static ShipmentColumns load(Path file) throws IOException {
+        MappedCsvReader reader = MappedCsvReader.open(file);
+        try {
+            ShipmentColumns columns = new ShipmentColumns(reader);
+            columns.read();
+            return columns;
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private void read() {
+        int weight = reader.columnIndex("weightKg");
+        int volume = reader.columnIndex("volumeM3");
+        int value = reader.columnIndex("valueUSD");
+        int date = reader.columnIndex("shipmentDate");
+        int capacity = 16;
+        while (reader.next()) {
+            if (size == 0) {
+                // estimate the row count from the first record, leaving some room for longer ones
+                long recordBytes = Math.max(16, reader.fieldOffset(reader.fieldCount() - 1) + reader.fieldLength(reader.fieldCount() - 1) - reader.recordOffset());
+                capacity = (int) Math.min(Integer.MAX_VALUE - 8, reader.byteSize() / recordBytes * 5 / 4 + 16);
+                allocate(capacity);
+            } else if (size == capacity) {
+                capacity = (int) Math.min(Integer.MAX_VALUE - 8, capacity + (long) (capacity >> 1));
+                allocate(capacity);
+            }
+            recordOffsets[size] = reader.recordOffset();
+            weightKg[size] = reader.getLong(weight);
+            volumeM3[size] = reader.getInt(volume);
+            valueUsd[size] = reader.getLong(value);
+            shipmentDay[size] = reader.getEpochDay(date);
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        recordOffsets = recordOffsets == null ? new long[capacity] : Arrays.copyOf(recordOffsets, capacity);
+        weightKg = weightKg == null ? new long[capacity] : Arrays.copyOf(weightKg, capacity);
+        volumeM3 = volumeM3 == null ? new int[capacity] : Arrays.copyOf(volumeM3, capacity);
+        valueUsd = valueUsd == null ? new long[capacity] : Arrays.copyOf(valueUsd, capacity);
+        shipmentDay = shipmentDay == null ? new int[capacity] : Arrays.copyOf(shipmentDay, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long weightKg(int row) {
+        return weightKg[checkRow(row)];
+    }
+
+    public int volumeM3(int row) {
+        return volumeM3[checkRow(row)];
+    }
+
+    public long valueUsd(int row) {
+        return valueUsd[checkRow(row)];
+    }
+
+    public int shipmentEpochDay(int row) {
+        return shipmentDay[checkRow(row)];
+    }
+
+    public LocalDate shipmentDate(int row) {
+        return LocalDate.ofEpochDay(shipmentEpochDay(row));
+    }
+
+    public String getString(int row, Text column) {
+        reader.seek(recordOffsets[checkRow(row)], row + 1L);
+        return reader.getString(textFields[column.ordinal()]);
+    }
+
+    public String containerId(int row) {
+        return getString(row, Text.CONTAINER_ID);
+    }
+
+    public String status(int row) {
+        return getString(row, Text.STATUS);
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,375 @@
+package com.saddy.framework.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column store for shipment records, used to compute the expected values of dashboard assertions.
+ * <p>
+ * Numbers are kept in primitive arrays. Ports, status, shipper and consignee are dictionary encoded: each
+ * distinct value gets an int code, and a column is an {@code int[]} of codes. A {@link Query} filters into a
+ * bitmap, 64 rows per word, by comparing codes or numbers. It then aggregates by indexing per-group
+ * accumulators with the group column's codes. Both steps are plain loops over arrays, which the JIT unrolls
+ * and vectorises.
+ */
+public final class ShipmentStore {
+    public enum Dimension {
+        ORIGIN_PORT, DESTINATION_PORT, STATUS, SHIPPER, CONSIGNEE
+    }
+
+    public enum Measure {
+        WEIGHT_KG, VOLUME_M3, VALUE_USD
+    }
+
+    private final int size;
+    private final String[] containerIds;
+    private final int[][] codes;
+    private final Dictionary[] dictionaries;
+    private final long[][] measures;
+    private final int[] shipmentDay;
+
+    private ShipmentStore(Builder builder) {
+        this.size = builder.size;
+        this.containerIds = Arrays.copyOf(builder.containerIds, size);
+        this.codes = new int[Dimension.values().length][];
+        for (int d = 0; d < codes.length; d++) {
+            codes[d] = Arrays.copyOf(builder.codes[d], size);
+        }
+        this.dictionaries = builder.dictionaries;
+        this.measures = new long[Measure.values().length][];
+        for (int m = 0; m < measures.length; m++) {
+            measures[m] = Arrays.copyOf(builder.measures[m], size);
+        }
+        this.shipmentDay = Arrays.copyOf(builder.shipmentDay, size);
+    }
+
+    /**
+     * Reads an export in the {@code data/shipment-report.csv} layout.
+     */
+    public static ShipmentStore load(Path file) throws IOException {
+        try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+            int id = reader.columnIndex("containerId");
+            int origin = reader.columnIndex("originPort");
+            int destination = reader.columnIndex("destinationPort");
+            int status = reader.columnIndex("status");
+            int date = reader.columnIndex("shipmentDate");
+            int weight = reader.columnIndex("weightKg");
+            int volume = reader.columnIndex("volumeM3");
+            int shipper = reader.columnIndex("shipper");
+            int consignee = reader.columnIndex("consignee");
+            int value = reader.columnIndex("valueUSD");
+            Builder builder = builder();
+            while (reader.next()) {
+                builder.add(reader.getString(id), reader.getString(origin), reader.getString(destination),
+                        reader.getString(status), reader.getEpochDay(date), reader.getLong(weight),
+                        reader.getLong(volume), reader.getString(shipper), reader.getString(consignee),
+                        reader.getLong(value));
+            }
+            return builder.build();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String containerId(int row) {
+        return containerIds[row];
+    }
+
+    public String get(int row, Dimension dimension) {
+        return dictionaries[dimension.ordinal()].value(codes[dimension.ordinal()][row]);
+    }
+
+    public long get(int row, Measure measure) {
+        return measures[measure.ordinal()][row];
+    }
+
+    public LocalDate shipmentDate(int row) {
+        return LocalDate.ofEpochDay(shipmentDay[row]);
+    }
+
+    /**
+     * The distinct values of a dimension, in order of first appearance.
+     */
+    public List<String> values(Dimension dimension) {
+        return dictionaries[dimension.ordinal()].values();
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Filters narrow the rows down (all filters must match), then one aggregate is computed over what is left,
+     * either in total or per value of a group-by dimension.
+     */
+    public final class Query {
+        private final long[] selection = new long[(size + 63) >>> 6];
+        private Dimension groupBy;
+
+        private Query() {
+            Arrays.fill(selection, -1L);
+            if ((size & 63) != 0) {
+                selection[selection.length - 1] = (1L << (size & 63)) - 1;
+            }
+        }
+
+        public Query where(Dimension dimension, String value) {
+            Integer code = dictionaries[dimension.ordinal()].codeOf(value);
+            if (code == null) {
+                Arrays.fill(selection, 0L);
+                return this;
+            }
+            int[] column = codes[dimension.ordinal()];
+            int wanted = code;
+            for (int word = 0; word < selection.length; word++) {
+                int base = word << 6;
+                int end = Math.min(64, size - base);
+                long bits = 0;
+                for (int bit = 0; bit < end; bit++) {
+                    bits |= (column[base + bit] == wanted ? 1L : 0L) << bit;
+                }
+                selection[word] &= bits;
+            }
+            return this;
+        }
+
+        // inclusive on both ends
+        public Query whereBetween(Measure measure, long min, long max) {
+            long[] column = measures[measure.ordinal()];
+            for (int word = 0; word < selection.length; word++) {
+                int base = word << 6;
+                int end = Math.min(64, size - base);
+                long bits = 0;
+                for (int bit = 0; bit < end; bit++) {
+                    long v = column[base + bit];
+                    bits |= (v >= min & v <= max ? 1L : 0L) << bit;
+                }
+                selection[word] &= bits;
+            }
+            return this;
+        }
+
+        public Query shippedBetween(LocalDate from, LocalDate to) {
+            int first = (int) from.toEpochDay();
+            int last = (int) to.toEpochDay();
+            for (int word = 0; word < selection.length; word++) {
+                int base = word << 6;
+                int end = Math.min(64, size - base);
+                long bits = 0;
+                for (int bit = 0; bit < end; bit++) {
+                    int day = shipmentDay[base + bit];
+                    bits |= (day >= first & day <= last ? 1L : 0L) << bit;
+                }
+                selection[word] &= bits;
+            }
+            return this;
+        }
+
+        public Query groupBy(Dimension dimension) {
+            this.groupBy = dimension;
+            return this;
+        }
+
+        public long count() {
+            long count = 0;
+            for (long word : selection) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        public long sum(Measure measure) {
+            long[] column = measures[measure.ordinal()];
+            long sum = 0;
+            for (int word = 0; word < selection.length; word++) {
+                long bits = selection[word];
+                if (bits == -1L) {
+                    int base = word << 6;
+                    for (int i = base; i < base + 64; i++) {
+                        sum += column[i];
+                    }
+                    continue;
+                }
+                while (bits != 0) {
+                    sum += column[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                }
+            }
+            return sum;
+        }
+
+        public double avg(Measure measure) {
+            long count = count();
+            return count == 0 ? Double.NaN : (double) sum(measure) / count;
+        }
+
+        public Map<String, Long> countByGroup() {
+            long[][] totals = accumulate(null);
+            return toMap(totals[0], totals[0]);
+        }
+
+        public Map<String, Long> sumByGroup(Measure measure) {
+            long[][] totals = accumulate(measures[measure.ordinal()]);
+            return toMap(totals[1], totals[0]);
+        }
+
+        public Map<String, Double> avgByGroup(Measure measure) {
+            long[][] totals = accumulate(measures[measure.ordinal()]);
+            Map<String, Double> averages = new LinkedHashMap<>();
+            Dictionary dictionary = dictionaries[requireGroup().ordinal()];
+            for (int code = 0; code < totals[0].length; code++) {
+                if (totals[0][code] > 0) {
+                    averages.put(dictionary.value(code), (double) totals[1][code] / totals[0][code]);
+                }
+            }
+            return averages;
+        }
+
+        // [0] = rows per group code, [1] = sum of the column per group code (when a column is given)
+        private long[][] accumulate(long[] column) {
+            int[] groups = codes[requireGroup().ordinal()];
+            long[] counts = new long[dictionaries[groupBy.ordinal()].size()];
+            long[] sums = new long[counts.length];
+            for (int word = 0; word < selection.length; word++) {
+                long bits = selection[word];
+                while (bits != 0) {
+                    int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    int group = groups[row];
+                    counts[group]++;
+                    if (column != null) {
+                        sums[group] += column[row];
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            return new long[][]{counts, sums};
+        }
+
+        // groups without any selected row are left out
+        private Map<String, Long> toMap(long[] values, long[] counts) {
+            Map<String, Long> result = new LinkedHashMap<>();
+            Dictionary dictionary = dictionaries[groupBy.ordinal()];
+            for (int code = 0; code < values.length; code++) {
+                if (counts[code] > 0) {
+                    result.put(dictionary.value(code), values[code]);
+                }
+            }
+            return result;
+        }
+
+        private Dimension requireGroup() {
+            if (groupBy == null) {
+                throw new IllegalStateException("Call groupBy(...) before a per-group aggregate");
+            }
+            return groupBy;
+        }
+    }
+
+    /**
+     * Collects rows and encodes them; arrays grow by half as rows are added.
+     */
+    public static final class Builder {
+        private int size;
+        private String[] containerIds = new String[1024];
+        private final int[][] codes = new int[Dimension.values().length][1024];
+        private final Dictionary[] dictionaries = new Dictionary[Dimension.values().length];
+        private final long[][] measures = new long[Measure.values().length][1024];
+        private int[] shipmentDay = new int[1024];
+
+        private Builder() {
+            for (int d = 0; d < dictionaries.length; d++) {
+                dictionaries[d] = new Dictionary();
+            }
+        }
+
+        public Builder add(String containerId, String originPort, String destinationPort, String status,
+                           LocalDate shipmentDate, long weightKg, long volumeM3, String shipper, String consignee,
+                           long valueUsd) {
+            return add(containerId, originPort, destinationPort, status, (int) shipmentDate.toEpochDay(), weightKg,
+                    volumeM3, shipper, consignee, valueUsd);
+        }
+
+        Builder add(String containerId, String originPort, String destinationPort, String status, int epochDay,
+                    long weightKg, long volumeM3, String shipper, String consignee, long valueUsd) {
+            if (size == containerIds.length) {
+                grow();
+            }
+            containerIds[size] = containerId;
+            encode(Dimension.ORIGIN_PORT, originPort);
+            encode(Dimension.DESTINATION_PORT, destinationPort);
+            encode(Dimension.STATUS, status);
+            encode(Dimension.SHIPPER, shipper);
+            encode(Dimension.CONSIGNEE, consignee);
+            measures[Measure.WEIGHT_KG.ordinal()][size] = weightKg;
+            measures[Measure.VOLUME_M3.ordinal()][size] = volumeM3;
+            measures[Measure.VALUE_USD.ordinal()][size] = valueUsd;
+            shipmentDay[size] = epochDay;
+            size++;
+            return this;
+        }
+
+        public ShipmentStore build() {
+            return new ShipmentStore(this);
+        }
+
+        private void encode(Dimension dimension, String value) {
+            codes[dimension.ordinal()][size] = dictionaries[dimension.ordinal()].encode(value);
+        }
+
+        private void grow() {
+            int capacity = size + (size >> 1);
+            containerIds = Arrays.copyOf(containerIds, capacity);
+            for (int d = 0; d < codes.length; d++) {
+                codes[d] = Arrays.copyOf(codes[d], capacity);
+            }
+            for (int m = 0; m < measures.length; m++) {
+                measures[m] = Arrays.copyOf(measures[m], capacity);
+            }
+            shipmentDay = Arrays.copyOf(shipmentDay, capacity);
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        Integer codeOf(String value) {
+            return codes.get(value);
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        List<String> values() {
+            return List.copyOf(values);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
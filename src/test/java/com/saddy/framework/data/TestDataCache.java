@@ -0,0 +1,278 @@
+package com.saddy.framework.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cache in front of the Excel and CSV readers. The first parse of a source writes a binary snapshot
+ * ({@link TestDataTable}) to {@code target/test-data-cache}. Later runs map that snapshot and do not
+ * parse the source at all.
+ * <p>
+ * Snapshots are named after the SHA-256 of the source file's content, so any edit to the file makes a new
+ * snapshot and the old one is deleted. Within one run a table is also kept in memory while the file's size
+ * and modification time are unchanged, which saves hashing it again for every data provider.
+ * {@code -Dtestdata.cache.dir} moves the snapshots and {@code -Dtestdata.cache=false} turns the cache off.
+ */
+public final class TestDataCache {
+    private static final Logger logger = LogManager.getLogger(TestDataCache.class);
+    // "-0" stays text: stored as a long it would come back as "0"
+    private static final Pattern WHOLE_NUMBER = Pattern.compile("0|-?[1-9]\\d{0,17}");
+    // One entry per source and part, replaced when the file changes
+    private static final Map<String, Loaded> LOADED = new ConcurrentHashMap<>();
+    private static final LongAdder MEMORY_HITS = new LongAdder();
+    private static final LongAdder SNAPSHOT_HITS = new LongAdder();
+    private static final LongAdder REBUILDS = new LongAdder();
+
+    private TestDataCache() {
+    }
+
+    public static TestDataTable excel(Path workbook, String sheet) {
+        return load(workbook, "sheet-" + sheet, () -> ExcelDataSource.open(workbook, sheet).maps());
+    }
+
+    public static TestDataTable csv(Path file) {
+        return load(file, "csv", () -> {
+            try {
+                return CsvRowReader.open(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static String stats() {
+        return "in-memory hits: %d, snapshot hits: %d, rebuilt: %d".formatted(MEMORY_HITS.sum(), SNAPSHOT_HITS.sum(), REBUILDS.sum());
+    }
+
+    public static long getSnapshotHits() {
+        return SNAPSHOT_HITS.sum();
+    }
+
+    public static long getRebuilds() {
+        return REBUILDS.sum();
+    }
+
+    private static TestDataTable load(Path source, String part, Supplier<Iterator<Map<String, String>>> parser) {
+        try {
+            String key = source.toAbsolutePath().normalize() + "#" + part;
+            String version = Files.getLastModifiedTime(source).toMillis() + "/" + Files.size(source);
+            Loaded loaded = LOADED.get(key);
+            if (loaded != null && loaded.version().equals(version)) {
+                MEMORY_HITS.increment();
+                return loaded.table();
+            }
+            TestDataTable table = Boolean.parseBoolean(System.getProperty("testdata.cache", "true"))
+                    ? fromSnapshot(source, part, parser)
+                    : uncached(parser);
+            LOADED.put(key, new Loaded(version, table));
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load test data from " + source, e);
+        }
+    }
+
+    private static TestDataTable fromSnapshot(Path source, String part, Supplier<Iterator<Map<String, String>>> parser)
+            throws IOException {
+        Path directory = Path.of(System.getProperty("testdata.cache.dir", "target/test-data-cache"));
+        String prefix = (source.getFileName() + "-" + part).replaceAll("[^A-Za-z0-9._-]", "_") + "-";
+        Path snapshot = directory.resolve(prefix + sha256(source) + ".tds");
+        if (Files.exists(snapshot)) {
+            try {
+                TestDataTable table = map(snapshot);
+                SNAPSHOT_HITS.increment();
+                return table;
+            } catch (IllegalArgumentException e) {
+                logger.warn("Rebuilding unreadable snapshot {}: {}", snapshot, e.getMessage());
+            }
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path temp = write(Files.createTempFile(directory, prefix, ".tmp"), parser.get());
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        REBUILDS.increment();
+        logger.info("Wrote test data snapshot {} in {} ms", snapshot, (System.nanoTime() - start) / 1_000_000);
+        deleteOlderSnapshots(directory, prefix, snapshot);
+        return map(snapshot);
+    }
+
+    private static TestDataTable uncached(Supplier<Iterator<Map<String, String>>> parser) throws IOException {
+        Path temp = write(Files.createTempFile("test-data-", ".tds"), parser.get());
+        try {
+            return map(temp);
+        } finally {
+            // the mapping stays valid after the file is gone (on Windows it has to wait for the exit)
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                temp.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    // Mapped for the rest of the run; the automatic arena unmaps it once no table refers to it any more.
+    private static TestDataTable map(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            return new TestDataTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+        }
+    }
+
+    static Path write(Path target, Iterator<Map<String, String>> source) throws IOException {
+        List<String> headers = null;
+        List<String[]> rows = new ArrayList<>();
+        while (source.hasNext()) {
+            Map<String, String> row = source.next();
+            if (headers == null) {
+                headers = List.copyOf(row.keySet());
+            }
+            rows.add(row.values().toArray(String[]::new));
+        }
+        if (headers == null) {
+            // a header row without data rows still names the columns
+            headers = switch (source) {
+                case CsvRowReader csv -> csv.headers();
+                case ExcelDataSource.RowIterator<?> excel -> excel.headers();
+                default -> List.of();
+            };
+        }
+        if (source instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.debug("Ignoring error while closing {}: {}", source, e.getMessage());
+            }
+        }
+        int columns = headers.size();
+        byte[] types = new byte[columns];
+        for (int c = 0; c < columns; c++) {
+            int column = c;
+            types[c] = !rows.isEmpty() && rows.stream().allMatch(row -> WHOLE_NUMBER.matcher(value(row, column)).matches())
+                    ? TestDataTable.LONG : TestDataTable.TEXT;
+        }
+        Map<String, Integer> codes = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] headerCodes = headers.stream().mapToInt(header -> code(header, codes, strings)).toArray();
+        int[][] textCodes = new int[columns][];
+        for (int c = 0; c < columns; c++) {
+            if (types[c] == TestDataTable.TEXT) {
+                textCodes[c] = new int[rows.size()];
+                for (int r = 0; r < rows.size(); r++) {
+                    textCodes[c][r] = code(value(rows.get(r), c), codes, strings);
+                }
+            }
+        }
+        long blobSize = strings.stream().mapToLong(bytes -> bytes.length).sum();
+        long stringOffsets = TestDataTable.align(20 + 5L * columns);
+        long position = TestDataTable.align(stringOffsets + 8L * (strings.size() + 1) + blobSize);
+        long[] columnOffsets = new long[columns];
+        for (int c = 0; c < columns; c++) {
+            columnOffsets[c] = position;
+            position = TestDataTable.align(position + (long) rows.size() * (types[c] == TestDataTable.LONG ? 8 : 4));
+        }
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment out = channel.map(FileChannel.MapMode.READ_WRITE, 0, position, arena);
+            out.set(TestDataTable.INT, 0, TestDataTable.MAGIC);
+            out.set(TestDataTable.INT, 4, TestDataTable.VERSION);
+            out.set(TestDataTable.INT, 8, rows.size());
+            out.set(TestDataTable.INT, 12, columns);
+            out.set(TestDataTable.INT, 16, strings.size());
+            for (int c = 0; c < columns; c++) {
+                out.set(TestDataTable.INT, 20 + 4L * c, headerCodes[c]);
+                out.set(ValueLayout.JAVA_BYTE, 20 + 4L * columns + c, types[c]);
+            }
+            long blob = stringOffsets + 8L * (strings.size() + 1);
+            long offset = 0;
+            for (int i = 0; i < strings.size(); i++) {
+                out.set(TestDataTable.LONG_LAYOUT, stringOffsets + 8L * i, offset);
+                MemorySegment.copy(strings.get(i), 0, out, ValueLayout.JAVA_BYTE, blob + offset, strings.get(i).length);
+                offset += strings.get(i).length;
+            }
+            out.set(TestDataTable.LONG_LAYOUT, stringOffsets + 8L * strings.size(), offset);
+            for (int c = 0; c < columns; c++) {
+                for (int r = 0; r < rows.size(); r++) {
+                    if (types[c] == TestDataTable.LONG) {
+                        out.set(TestDataTable.LONG_LAYOUT, columnOffsets[c] + 8L * r, Long.parseLong(value(rows.get(r), c)));
+                    } else {
+                        out.set(TestDataTable.INT, columnOffsets[c] + 4L * r, textCodes[c][r]);
+                    }
+                }
+            }
+            out.force();
+        }
+        return target;
+    }
+
+    private static String value(String[] row, int column) {
+        return column < row.length && row[column] != null ? row[column] : "";
+    }
+
+    private static int code(String value, Map<String, Integer> codes, List<byte[]> strings) {
+        return codes.computeIfAbsent(value, v -> {
+            strings.add(v.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    // Best effort: an older snapshot may still be mapped by a table of this run, which Windows refuses to delete
+    private static void deleteOlderSnapshots(Path directory, String prefix, Path current) {
+        Pattern snapshotName = Pattern.compile(Pattern.quote(prefix) + "[0-9a-f]{64}\\.tds");
+        List<Path> older;
+        try (Stream<Path> files = Files.list(directory)) {
+            older = files.filter(f -> snapshotName.matcher(f.getFileName().toString()).matches() && !f.equals(current)).toList();
+        } catch (IOException e) {
+            logger.warn("Could not look for older snapshots in {}: {}", directory, e.getMessage());
+            return;
+        }
+        for (Path file : older) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.debug("Deleting {} at exit instead: {}", file, e.getMessage());
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Loaded(String version, TestDataTable table) {
+    }
+}
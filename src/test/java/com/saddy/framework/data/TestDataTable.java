@@ -0,0 +1,187 @@
+package com.saddy.framework.data;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * A table of test data read from a binary snapshot written by {@link TestDataCache}.
+ * <p>
+ * The snapshot stays memory-mapped and values are decoded on access. Columns where every value is a
+ * whole number are stored as {@code long}s. Every other value is an index into a string dictionary that
+ * holds each distinct text once. Snapshot layout, little endian:
+ * <pre>
+ * int magic, int version, int rows, int columns, int dictionarySize
+ * int[columns] header codes, byte[columns] column types (0 text, 1 long), padding to 8
+ * long[dictionarySize + 1] string offsets into the blob, byte[] UTF-8 blob, padding to 8
+ * per column: long[rows] for long columns, int[rows] dictionary codes for text columns (padded to 8)
+ * </pre>
+ * Instances are immutable and can be shared between data providers on any thread.
+ */
+public final class TestDataTable {
+    static final int MAGIC = 0x54445331; // "TDS1"
+    static final int VERSION = 1;
+    static final byte TEXT = 0;
+    static final byte LONG = 1;
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final MemorySegment data;
+    private final int rows;
+    private final List<String> headers;
+    private final byte[] types;
+    private final long[] columnOffsets;
+    private final long stringOffsets;
+    private final long blob;
+    private final String[] decoded;
+    private final Map<String, Integer> columnLookup = new ConcurrentHashMap<>();
+
+    TestDataTable(MemorySegment data) {
+        this.data = data;
+        if (data.byteSize() < 20 || data.get(INT, 0) != MAGIC || data.get(INT, 4) != VERSION) {
+            throw new IllegalArgumentException("Not a test data snapshot (version " + VERSION + ")");
+        }
+        this.rows = data.get(INT, 8);
+        int columns = data.get(INT, 12);
+        int dictionarySize = data.get(INT, 16);
+        long position = 20;
+        int[] headerCodes = new int[columns];
+        for (int c = 0; c < columns; c++, position += 4) {
+            headerCodes[c] = data.get(INT, position);
+        }
+        this.types = new byte[columns];
+        for (int c = 0; c < columns; c++, position++) {
+            types[c] = data.get(ValueLayout.JAVA_BYTE, position);
+        }
+        position = align(position);
+        this.stringOffsets = position;
+        this.blob = stringOffsets + 8L * (dictionarySize + 1);
+        this.decoded = new String[dictionarySize];
+        position = align(blob + data.get(LONG_LAYOUT, stringOffsets + 8L * dictionarySize));
+        this.columnOffsets = new long[columns];
+        for (int c = 0; c < columns; c++) {
+            columnOffsets[c] = position;
+            position = align(position + (long) rows * (types[c] == LONG ? 8 : 4));
+        }
+        if (position > data.byteSize()) {
+            throw new IllegalArgumentException("Truncated test data snapshot");
+        }
+        List<String> names = new ArrayList<>(columns);
+        for (int code : headerCodes) {
+            names.add(string(code));
+        }
+        this.headers = List.copyOf(names);
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    public List<String> headers() {
+        return headers;
+    }
+
+    public int columnIndex(String column) {
+        return columnLookup.computeIfAbsent(column, this::findColumn);
+    }
+
+    private int findColumn(String column) {
+        String wanted = ReconciliationEngine.normalize(column);
+        for (int c = 0; c < headers.size(); c++) {
+            if (ReconciliationEngine.normalize(headers.get(c)).equals(wanted)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("No column '%s' in %s".formatted(column, headers));
+    }
+
+    public boolean isNumeric(int column) {
+        return types[column] == LONG;
+    }
+
+    public String getString(int row, int column) {
+        checkRow(row);
+        if (types[column] == LONG) {
+            return Long.toString(data.get(LONG_LAYOUT, columnOffsets[column] + 8L * row));
+        }
+        return string(data.get(INT, columnOffsets[column] + 4L * row));
+    }
+
+    public long getLong(int row, int column) {
+        checkRow(row);
+        if (types[column] != LONG) {
+            throw new IllegalArgumentException("Column '%s' is not numeric".formatted(headers.get(column)));
+        }
+        return data.get(LONG_LAYOUT, columnOffsets[column] + 8L * row);
+    }
+
+    /**
+     * Rows as data provider parameters, one string per requested column; all columns without arguments.
+     */
+    public Iterator<Object[]> rows(String... columns) {
+        int[] selected = columns.length == 0
+                ? IntStream.range(0, headers.size()).toArray()
+                : Arrays.stream(columns).mapToInt(this::columnIndex).toArray();
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < rows;
+            }
+
+            @Override
+            public Object[] next() {
+                if (row >= rows) {
+                    throw new NoSuchElementException();
+                }
+                Object[] values = new Object[selected.length];
+                for (int i = 0; i < selected.length; i++) {
+                    values[i] = getString(row, selected[i]);
+                }
+                row++;
+                return values;
+            }
+        };
+    }
+
+    public Map<String, String> row(int row) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int c = 0; c < headers.size(); c++) {
+            values.put(headers.get(c), getString(row, c));
+        }
+        return values;
+    }
+
+    // Decoded lazily and kept, so each distinct string is turned into a String at most once.
+    private String string(int code) {
+        String value = decoded[code];
+        if (value == null) {
+            long start = data.get(LONG_LAYOUT, stringOffsets + 8L * code);
+            long end = data.get(LONG_LAYOUT, stringOffsets + 8L * (code + 1));
+            value = new String(data.asSlice(blob + start, end - start).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+            decoded[code] = value;
+        }
+        return value;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
@@ -0,0 +1,165 @@
+package com.saddy.framework.data;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Key lookups over the sheets of a workbook, instead of {@code sheet.getRow(n).getCell(m)} and linear scans.
+ * <p>
+ * Sheets come from the {@link TestDataCache}, so POI only runs when the workbook changed. Asking for a sheet
+ * keyed by a column builds a hash index from that column's text to its rows, once per sheet and column.
+ * After that {@link SheetIndex#findRow} is a single hash lookup. Indexes are immutable and shared: every
+ * data provider or test thread that opens the same workbook version gets the same instances.
+ */
+public final class WorkbookIndex {
+//    One entry per workbook sheet, replaced when the cache hands out a new table, so an edited workbook does not
+//    keep its old table (and snapshot mapping) reachable
+    private static final Map<String, Indexed> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path workbook;
+
+    private WorkbookIndex(Path workbook) {
+        this.workbook = workbook;
+    }
+
+    public static WorkbookIndex open(Path workbook) {
+        if (!Files.isRegularFile(workbook)) {
+            throw new IllegalArgumentException("No workbook at " + workbook.toAbsolutePath());
+        }
+        return new WorkbookIndex(workbook);
+    }
+
+    /**
+     * The sheet indexed on one column, e.g. {@code keyedBy("employee", "Name")}.
+     */
+    public SheetIndex keyedBy(String sheet, String keyColumn) {
+        TestDataTable table = TestDataCache.excel(workbook, sheet);
+        Indexed indexed = INDEXES.compute(workbook.toAbsolutePath().normalize() + "#" + sheet,
+                (key, current) -> current != null && current.table() == table ? current
+                        : new Indexed(table, new ConcurrentHashMap<>()));
+        return indexed.byColumn()
+                .computeIfAbsent(ReconciliationEngine.normalize(keyColumn), column -> new SheetIndex(sheet, table, keyColumn));
+    }
+
+    public Optional<WorkbookRow> findRow(String sheet, String keyColumn, String key) {
+        return keyedBy(sheet, keyColumn).findRow(key);
+    }
+
+    public int rowCount(String sheet) {
+        return TestDataCache.excel(workbook, sheet).rowCount();
+    }
+
+    public static final class SheetIndex {
+        private final String sheet;
+        private final TestDataTable table;
+        private final String keyColumn;
+        private final Map<String, int[]> rowsByKey;
+
+        private SheetIndex(String sheet, TestDataTable table, String keyColumn) {
+            this.sheet = sheet;
+            this.table = table;
+            this.keyColumn = keyColumn;
+            int column = table.columnIndex(keyColumn);
+            Map<String, List<Integer>> grouped = new HashMap<>(table.rowCount() * 2);
+            for (int row = 0; row < table.rowCount(); row++) {
+                grouped.computeIfAbsent(table.getString(row, column).trim(), key -> new ArrayList<>(1)).add(row);
+            }
+            Map<String, int[]> index = new HashMap<>(grouped.size() * 2);
+            grouped.forEach((key, rows) -> index.put(key, rows.stream().mapToInt(Integer::intValue).toArray()));
+            this.rowsByKey = Map.copyOf(index);
+        }
+
+        /**
+         * The first row whose key column holds the given text.
+         */
+        public Optional<WorkbookRow> findRow(String key) {
+            int[] rows = rowsByKey.get(key.trim());
+            return rows == null ? Optional.empty() : Optional.of(new WorkbookRow(table, rows[0]));
+        }
+
+        public List<WorkbookRow> findRows(String key) {
+            int[] rows = rowsByKey.getOrDefault(key.trim(), new int[0]);
+            List<WorkbookRow> found = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                found.add(new WorkbookRow(table, row));
+            }
+            return found;
+        }
+
+        public boolean containsKey(String key) {
+            return rowsByKey.containsKey(key.trim());
+        }
+
+        /**
+         * Only the given columns of every row, in sheet order, as data provider parameters.
+         */
+        public Iterator<Object[]> project(String... columns) {
+            return table.rows(columns);
+        }
+
+        public int rowCount() {
+            return table.rowCount();
+        }
+
+        public List<String> headers() {
+            return table.headers();
+        }
+
+        @Override
+        public String toString() {
+            return "%s keyed by %s (%d rows, %d keys)".formatted(sheet, keyColumn, table.rowCount(), rowsByKey.size());
+        }
+    }
+
+    /**
+     * One row of an indexed sheet, read by column name with typed getters.
+     */
+    public record WorkbookRow(TestDataTable table, int row) {
+
+        public String getString(String column) {
+            return table.getString(row, table.columnIndex(column));
+        }
+
+        public long getLong(String column) {
+            int index = table.columnIndex(column);
+            return table.isNumeric(index) ? table.getLong(row, index) : Long.parseLong(table.getString(row, index).trim());
+        }
+
+        public int getInt(String column) {
+            return Math.toIntExact(getLong(column));
+        }
+
+        public double getDouble(String column) {
+            int index = table.columnIndex(column);
+            return table.isNumeric(index) ? table.getLong(row, index)
+                    : Double.parseDouble(table.getString(row, index).replace(",", "").trim());
+        }
+
+        public boolean getBoolean(String column) {
+            String value = getString(column).trim();
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes") || value.equals("1");
+        }
+
+        public Object[] project(String... columns) {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = getString(columns[i]);
+            }
+            return values;
+        }
+
+        public Map<String, String> toMap() {
+            return table.row(row);
+        }
+    }
+
+    private record Indexed(TestDataTable table, Map<String, SheetIndex> byColumn) {
+    }
+}
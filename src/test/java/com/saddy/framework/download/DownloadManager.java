@@ -0,0 +1,246 @@
+package com.saddy.framework.download;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A private download directory for one test, and a way to wait for a download to finish in it.
+ * <p>
+ * Each instance creates its own temp directory, so parallel tests never see each other's files. Completion is
+ * detected from {@link WatchService} events rather than by sleeping. Partial files (Chrome's {@code .crdownload},
+ * Firefox's {@code .part}, hidden temp files) are ignored until the browser renames them to the final name. The
+ * file is then read once to compute its SHA-256. If it grew while being read, the download is still being
+ * written and the wait goes on.
+ * <p>
+ * Chrome and Edge sessions, including pooled ones, are pointed at the directory with {@link #routeDownloads}.
+ * Firefox only reads its download directory at launch, so it needs {@link #prefsFor} in its options when it is
+ * created. Unless {@code -Ddownload.keep=true} is given, the directory is deleted on {@link #close()}.
+ */
+public class DownloadManager implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(DownloadManager.class);
+    private static final List<String> PARTIAL_SUFFIXES = List.of(".crdownload", ".part", ".tmp", ".download");
+
+    private final Path directory;
+    private final WatchService watcher;
+    private final Map<Path, String> checksums = new ConcurrentHashMap<>();
+    private HasCdp routedBrowser;
+
+    private DownloadManager(Path directory) throws IOException {
+        this.directory = directory;
+        this.watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * A new empty download directory, named after the test for easier debugging.
+     */
+    public static DownloadManager forTest(String testName) {
+        try {
+            return new DownloadManager(Files.createTempDirectory("downloads-" + testName.replaceAll("\\W+", "_") + "-"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a download directory for " + testName, e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Chrome preferences that send downloads here without a prompt, for browsers created just for this test
+    public Map<String, Object> chromePrefs() {
+        return Map.of("download.default_directory", directory.toString(),
+                "download.prompt_for_download", false,
+                "profile.default_content_settings.popups", 0);
+    }
+
+    // Firefox preferences with the same effect; the MIME types are the ones the test pages export
+    public Map<String, Object> firefoxPrefs() {
+        return Map.of("browser.download.dir", directory.toString(),
+                "browser.download.folderList", 2,
+                "browser.download.useDownloadDir", true,
+                "browser.download.manager.showWhenStarting", false,
+                "browser.helperApps.neverAsk.saveToDisk", String.join(",", "text/csv", "text/plain",
+                        "application/vnd.ms-excel", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                        "application/octet-stream"));
+    }
+
+    /**
+     * Launch preferences for the browser name used by {@code DriverFactory}, to pass to {@code DriverFactory.mergePrefs}.
+     */
+    public Map<String, Object> prefsFor(String browser) {
+        return "firefox".equalsIgnoreCase(browser) ? firefoxPrefs() : chromePrefs();
+    }
+
+    /**
+     * Sends the downloads of an already running Chrome or Edge session to this directory.
+     */
+    public DownloadManager routeDownloads(WebDriver driver) {
+        if (!(driver instanceof HasCdp cdp)) {
+            throw new IllegalArgumentException(("Downloads of a running %s cannot be redirected; only Chrome and Edge "
+                    + "sessions are supported. Launch other browsers with prefsFor(browser) in their options instead")
+                    .formatted(driver.getClass().getSimpleName()));
+        }
+        cdp.executeCdpCommand("Browser.setDownloadBehavior", Map.of("behavior", "allow", "downloadPath", directory.toString()));
+        routedBrowser = cdp;
+        return this;
+    }
+
+    /**
+     * Waits until a complete file matching the glob (e.g. {@code "*.csv"}) is in the directory and returns it.
+     */
+    public Path awaitDownload(String glob, Duration timeout) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            // files finished before the first event are picked up by the scan
+            Path file = findComplete(matcher);
+            while (file == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("No download matching '%s' completed in %s within %s; found %s"
+                            .formatted(glob, directory, timeout, listFiles()));
+                }
+                WatchKey key = watcher.poll(remaining, TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                file = findComplete(matcher);
+            }
+            logger.info("Download complete: {} ({} bytes, sha256 {})", file, Files.size(file), checksums.get(file));
+            return file;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a download in " + directory, e);
+        } catch (ClosedWatchServiceException | IOException e) {
+            throw new IllegalStateException("Could not watch " + directory, e);
+        }
+    }
+
+    /**
+     * SHA-256 of a file returned by {@link #awaitDownload}, as lower case hex.
+     */
+    public String checksumOf(Path file) {
+        return checksums.get(file);
+    }
+
+    public void verify(Path file, long expectedSize, String expectedSha256) {
+        try {
+            long size = Files.size(file);
+            if (size != expectedSize) {
+                throw new AssertionError("%s is %d bytes, expected %d".formatted(file.getFileName(), size, expectedSize));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String checksum = checksums.computeIfAbsent(file, path -> sha256(path).checksum());
+        if (!checksum.equalsIgnoreCase(expectedSha256)) {
+            throw new AssertionError("%s has sha256 %s, expected %s".formatted(file.getFileName(), checksum, expectedSha256));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (routedBrowser != null) {
+            try {
+                routedBrowser.executeCdpCommand("Browser.setDownloadBehavior", Map.of("behavior", "default"));
+            } catch (WebDriverException e) {
+                logger.debug("Could not reset the download behaviour: {}", e.getMessage());
+            }
+        }
+        try {
+            watcher.close();
+            if (!Boolean.getBoolean("download.keep")) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean up {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private Path findComplete(PathMatcher matcher) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                if (isFinalName(file) && matcher.matches(file.getFileName()) && isComplete(file)) {
+                    return file;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isFinalName(Path file) {
+        String name = file.getFileName().toString();
+        return !name.startsWith(".") && PARTIAL_SUFFIXES.stream().noneMatch(name::endsWith);
+    }
+
+    // Firefox creates the empty final file up front and writes into <name>.part, so both have to be checked.
+    private boolean isComplete(Path file) throws IOException {
+        if (checksums.containsKey(file)) {
+            return true;
+        }
+        if (Files.size(file) == 0 || Files.exists(file.resolveSibling(file.getFileName() + ".part"))) {
+            return false;
+        }
+        Digest digest = sha256(file);
+        if (digest.bytes() != Files.size(file)) {
+            return false;
+        }
+        checksums.put(file, digest.checksum());
+        return true;
+    }
+
+    private static Digest sha256(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            long bytes = 0;
+            for (int read; (read = in.read(buffer)) != -1; bytes += read) {
+                digest.update(buffer, 0, read);
+            }
+            return new Digest(bytes, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).toList();
+        }
+    }
+
+    private record Digest(long bytes, String checksum) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.saddy.framework.driver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how sessions reached the tests: taken warm from the pool, launched cold on the test thread,
+ * or launched in the background by the {@link DriverPreWarmer}.
+ */
+public class AcquireStats {
+    private final LongAdder warmAcquires = new LongAdder();
+    private final LongAdder warmWaitNanos = new LongAdder();
+    private final LongAdder coldAcquires = new LongAdder();
+    private final LongAdder coldLaunchNanos = new LongAdder();
+    private final LongAdder backgroundLaunches = new LongAdder();
+    private final LongAdder backgroundLaunchNanos = new LongAdder();
+
+    void recordWarm(long waitNanos) {
+        warmAcquires.increment();
+        warmWaitNanos.add(waitNanos);
+    }
+
+    void recordCold(long launchNanos) {
+        coldAcquires.increment();
+        coldLaunchNanos.add(launchNanos);
+    }
+
+    void recordBackgroundLaunch(long launchNanos) {
+        backgroundLaunches.increment();
+        backgroundLaunchNanos.add(launchNanos);
+    }
+
+    public long getWarmAcquires() {
+        return warmAcquires.sum();
+    }
+
+    public long getColdAcquires() {
+        return coldAcquires.sum();
+    }
+
+    public long averageWarmWaitMillis() {
+        return averageMillis(warmWaitNanos, warmAcquires);
+    }
+
+    public long averageColdLaunchMillis() {
+        return averageMillis(coldLaunchNanos, coldAcquires);
+    }
+
+    public long averageBackgroundLaunchMillis() {
+        return averageMillis(backgroundLaunchNanos, backgroundLaunches);
+    }
+
+    private static long averageMillis(LongAdder nanos, LongAdder count) {
+        long n = count.sum();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos.sum() / n);
+    }
+
+    @Override
+    public String toString() {
+        return "warm acquires: %d (avg wait %d ms), cold launches on test thread: %d (avg %d ms), background launches: %d (avg %d ms)"
+                .formatted(getWarmAcquires(), averageWarmWaitMillis(), getColdAcquires(), averageColdLaunchMillis(),
+                        backgroundLaunches.sum(), averageBackgroundLaunchMillis());
+    }
+}
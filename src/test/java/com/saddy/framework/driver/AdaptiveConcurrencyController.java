@@ -0,0 +1,228 @@
+package com.saddy.framework.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Grows and shrinks the number of concurrent test workers while the suite runs (AIMD).
+ * <p>
+ * Every {@code concurrency.interval} seconds it samples the cores, available memory, the resident memory of
+ * the browser and driver processes started by this JVM and the number of tests finished since the last sample.
+ * <ul>
+ *     <li>timeouts, or available memory below the reserve: halve the limit</li>
+ *     <li>throughput dropped after the previous increase: step back by one</li>
+ *     <li>all workers busy and memory left for one more browser: add one</li>
+ *     <li>otherwise: keep the limit</li>
+ * </ul>
+ * Every decision is logged with its inputs. Bounds and tuning come from system properties:
+ * {@code concurrency.initial} (2), {@code concurrency.min} (1), {@code concurrency.max} (cores),
+ * {@code concurrency.memoryReserveMb} (10% of RAM, at least 512) and {@code concurrency.memoryPerWorkerMb}
+ * (512, used until a browser has been measured).
+ */
+public class AdaptiveConcurrencyController {
+    private static final Logger logger = LogManager.getLogger(AdaptiveConcurrencyController.class);
+    private static final long MB = 1024 * 1024;
+    private static final List<String> BROWSER_PROCESSES =
+            List.of("chrome", "chromedriver", "firefox", "geckodriver", "msedge", "msedgedriver");
+
+    private final IntConsumer resizer;
+    private final IntSupplier busyWorkers;
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    private final int minLimit = Integer.getInteger("concurrency.min", 1);
+    private final int maxLimit = Integer.getInteger("concurrency.max", cores);
+    private final long intervalSeconds = Integer.getInteger("concurrency.interval", 10);
+    private final long defaultWorkerMemory = Integer.getInteger("concurrency.memoryPerWorkerMb", 512) * MB;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger limit;
+    private ScheduledExecutorService scheduler;
+    private double previousThroughput;
+    private boolean increasedLastTime;
+
+    public AdaptiveConcurrencyController(IntConsumer resizer, IntSupplier busyWorkers) {
+        this.resizer = resizer;
+        this.busyWorkers = busyWorkers;
+        this.limit = new AtomicInteger(clamp(Integer.getInteger("concurrency.initial", 2)));
+    }
+
+    public void start() {
+        resizer.accept(limit.get());
+        logger.info("Adaptive concurrency started: limit={}, min={}, max={}, cores={}, interval={}s",
+                limit.get(), minLimit, maxLimit, cores, intervalSeconds);
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "adaptive-concurrency");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::adjust, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        logger.info("Adaptive concurrency stopped at limit {}", limit.get());
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public void recordCompletion(boolean timedOut) {
+        completed.increment();
+        if (timedOut) {
+            timeouts.increment();
+        }
+    }
+
+    void adjust() {
+        try {
+            decide(sample());
+        } catch (RuntimeException e) {
+            logger.warn("Skipping concurrency adjustment: {}", e.getMessage());
+        }
+    }
+
+    private Sample sample() {
+        var os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long browserRss = ProcessHandle.current().descendants()
+                .filter(AdaptiveConcurrencyController::isBrowserProcess)
+                .mapToLong(AdaptiveConcurrencyController::residentBytes)
+                .sum();
+        double throughput = completed.sumThenReset() * 60.0 / intervalSeconds;
+        return new Sample(os.getTotalMemorySize(), availableMemory(os.getFreeMemorySize()), browserRss, DriverPool.totalLiveSessions(),
+                busyWorkers.getAsInt(), throughput, timeouts.sumThenReset());
+    }
+
+    private void decide(Sample sample) {
+        int current = limit.get();
+        long reserve = Long.getLong("concurrency.memoryReserveMb", Math.max(512, sample.totalMemory / MB / 10)) * MB;
+        long perWorker = sample.browsers > 0 && sample.browserRss > 0 ? sample.browserRss / sample.browsers : defaultWorkerMemory;
+        int next = current;
+        String reason;
+        if (sample.timeouts > 0) {
+            next = current / 2;
+            reason = "multiplicative decrease, " + sample.timeouts + " timeout(s)";
+        } else if (sample.availableMemory < reserve) {
+            next = current / 2;
+            reason = "multiplicative decrease, available memory below reserve";
+        } else if (increasedLastTime && sample.throughput < previousThroughput * 0.9) {
+            next = current - 1;
+            reason = "step back, throughput fell after the last increase";
+        } else if (current >= maxLimit) {
+            reason = "hold, at maximum";
+        } else if (sample.busy < current) {
+            reason = "hold, workers not saturated";
+        } else if (sample.availableMemory - perWorker < reserve) {
+            reason = "hold, no memory headroom for another browser";
+        } else {
+            next = current + 1;
+            reason = "additive increase";
+        }
+        next = clamp(next);
+        logger.info("Concurrency {} -> {} ({}): cores={}, availableMem={}MB, reserve={}MB, browserRss={}MB in {} session(s), "
+                        + "perWorker={}MB, busy={}, throughput={}/min",
+                current, next, reason, cores, sample.availableMemory / MB, reserve / MB, sample.browserRss / MB,
+                sample.browsers, perWorker / MB, sample.busy, Math.round(sample.throughput));
+        increasedLastTime = next > current;
+        previousThroughput = sample.throughput;
+        if (next != current) {
+            limit.set(next);
+            resizer.accept(next);
+        }
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    // MemFree leaves out the page cache the kernel hands back on demand, so a busy agent would always look full.
+    // MemAvailable counts it, and a container limit caps it; the JVM's free memory is only the last resort.
+    static long availableMemory(long freeMemory) {
+        long available = meminfo("MemAvailable:");
+        long headroom = containerHeadroom();
+        available = available < 0 ? freeMemory : available;
+        return headroom < 0 ? available : Math.min(available, headroom);
+    }
+
+    private static long meminfo(String key) {
+        try {
+            return Files.readAllLines(Path.of("/proc/meminfo")).stream()
+                    .filter(line -> line.startsWith(key))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // Limit minus usage of the cgroup (v2, then v1), not counting inactive page cache; -1 when there is no limit.
+    private static long containerHeadroom() {
+        Path v2 = Path.of("/sys/fs/cgroup");
+        long headroom = cgroupHeadroom(v2.resolve("memory.max"), v2.resolve("memory.current"), v2.resolve("memory.stat"),
+                "inactive_file ");
+        if (headroom >= 0) {
+            return headroom;
+        }
+        Path v1 = v2.resolve("memory");
+        return cgroupHeadroom(v1.resolve("memory.limit_in_bytes"), v1.resolve("memory.usage_in_bytes"),
+                v1.resolve("memory.stat"), "total_inactive_file ");
+    }
+
+    private static long cgroupHeadroom(Path limitFile, Path usageFile, Path statFile, String inactiveKey) {
+        try {
+            String limitText = Files.readString(limitFile).trim();
+            // cgroup v1 reports "no limit" as a number close to Long.MAX_VALUE
+            if (limitText.equals("max") || limitText.length() >= 19) {
+                return -1;
+            }
+            long usage = Long.parseLong(Files.readString(usageFile).trim());
+            long inactive = Files.readAllLines(statFile).stream()
+                    .filter(line -> line.startsWith(inactiveKey))
+                    .mapToLong(line -> Long.parseLong(line.substring(inactiveKey.length()).trim()))
+                    .findFirst()
+                    .orElse(0);
+            return Math.max(0, Long.parseLong(limitText) - Math.max(0, usage - inactive));
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isBrowserProcess(ProcessHandle process) {
+        String command = process.info().command().orElse("").toLowerCase();
+        String name = Path.of(command).getFileName() == null ? "" : Path.of(command).getFileName().toString();
+        return BROWSER_PROCESSES.stream().anyMatch(name::startsWith);
+    }
+
+    // VmRSS from /proc is only available on Linux; elsewhere the per-worker default is used instead.
+    private static long residentBytes(ProcessHandle process) {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        try {
+            return Files.readAllLines(status).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                    .findFirst()
+                    .orElse(0);
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private record Sample(long totalMemory, long availableMemory, long browserRss, int browsers, int busy,
+                          double throughput, long timeouts) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.saddy.framework.driver;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates TestNG worker pools whose size follows {@link AdaptiveConcurrencyController} instead of the
+ * {@code thread-count} of the suite file. {@code AdaptiveConcurrencyListener} installs it when the run starts;
+ * when the run asked for {@link VirtualThreadExecutorFactory} the workers are virtual threads, still limited in
+ * number.
+ */
+public class AdaptiveExecutorFactory implements IExecutorServiceFactory {
+    private final List<ThreadPoolExecutor> executors = new CopyOnWriteArrayList<>();
+    private final boolean virtualThreads;
+    private volatile int limit = 1;
+
+    public AdaptiveExecutorFactory(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(limit, limit, keepAliveTime, unit, workQueue,
+                virtualThreads ? VirtualThreadExecutorFactory.threadFactory() : threadFactory) {
+            @Override
+            protected void terminated() {
+                executors.remove(this);
+            }
+        };
+        executors.add(executor);
+        return executor;
+    }
+
+    public synchronized void resize(int newLimit) {
+        limit = newLimit;
+        for (ThreadPoolExecutor executor : executors) {
+            // The maximum must never drop below the core size, so the order depends on the direction.
+            if (newLimit > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(newLimit);
+                executor.setCorePoolSize(newLimit);
+            } else {
+                executor.setCorePoolSize(newLimit);
+                executor.setMaximumPoolSize(newLimit);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.saddy.framework.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many tests may hold a browser at the same time, independently of how many test threads run.
+ * Tests that do not need a browser never touch it, so they are not limited at all.
+ * <p>
+ * The limit starts at {@code browser.capacity}, defaulting to {@code driver.pool.size}, and can be changed
+ * while tests run through {@link #resize(int)}.
+ */
+public final class BrowserCapacity {
+    private static final Logger logger = LogManager.getLogger(BrowserCapacity.class);
+
+    private static final ResizableSemaphore SEMAPHORE = new ResizableSemaphore(
+            Integer.getInteger("browser.capacity", Integer.getInteger("driver.pool.size", 2)));
+    private static volatile int capacity = SEMAPHORE.availablePermits();
+    private static final AtomicInteger IN_USE = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+
+    private BrowserCapacity() {
+    }
+
+    public static void run(Runnable browserWork) {
+        acquire();
+        try {
+            browserWork.run();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Takes a permit for browser work that does not fit in one block, e.g. a session borrowed in
+     * {@code @BeforeMethod} and returned in {@code @AfterMethod}. Every call must be paired with {@link #release()}.
+     */
+    public static void acquire() {
+        try {
+            SEMAPHORE.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for browser capacity", e);
+        }
+        PEAK.accumulateAndGet(IN_USE.incrementAndGet(), Math::max);
+    }
+
+    public static void release() {
+        IN_USE.decrementAndGet();
+        SEMAPHORE.release();
+    }
+
+    /**
+     * Changes the number of browser tests allowed at once. Shrinking never interrupts running tests;
+     * the extra permits are simply not handed out again.
+     */
+    public static synchronized void resize(int newCapacity) {
+        int delta = Math.max(1, newCapacity) - capacity;
+        if (delta > 0) {
+            SEMAPHORE.release(delta);
+        } else if (delta < 0) {
+            SEMAPHORE.shrink(-delta);
+        }
+        capacity += delta;
+    }
+
+    public static int getCapacity() {
+        return capacity;
+    }
+
+    public static int getInUse() {
+        return IN_USE.get();
+    }
+
+    public static int getPeakUsage() {
+        return PEAK.get();
+    }
+
+    public static int getQueueLength() {
+        return SEMAPHORE.getQueueLength();
+    }
+
+    public static void report() {
+        logger.info("Browser capacity {} - peak concurrent browser tests: {}", capacity, PEAK.get());
+    }
+
+    private static class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        void shrink(int permits) {
+            reducePermits(permits);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.saddy.framework.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Carries the driver of the running test as a {@link ScopedValue}. Unlike a {@code ThreadLocal} the binding
+ * is only visible inside {@link #run(WebDriver, Runnable)} and is gone as soon as the test returns, which
+ * keeps it cheap on virtual threads and impossible to leak into the next test.
+ */
+public final class DriverContext {
+    private static final ScopedValue<WebDriver> DRIVER = ScopedValue.newInstance();
+
+    private DriverContext() {
+    }
+
+    public static void run(WebDriver driver, Runnable action) {
+        ScopedValue.where(DRIVER, driver).run(action);
+    }
+
+    public static WebDriver current() {
+        if (!DRIVER.isBound()) {
+            throw new IllegalStateException("No WebDriver is bound to this thread. Run the test through ScopedDriverTest.");
+        }
+        return DRIVER.get();
+    }
+
+    public static boolean isBound() {
+        return DRIVER.isBound();
+    }
+}
@@ -0,0 +1,171 @@
+package com.saddy.framework.driver;
+
+import com.saddy.framework.metrics.CommandTimingListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.testng.ISuite;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The one place browsers are launched. Options come from a {@link DriverProfile}; callers that need extra
+ * settings (download folders, prefs) pass a customizer that runs on the options before the launch.
+ * Launch times are recorded per browser and profile so the cheapest profile that still passes can be chosen.
+ * <p>
+ * Every driver is wrapped with a {@link NavigationListener}. Unless {@code -Ddriver.instrumentation=false} is
+ * given, a {@link CommandTimingListener} is added as well so the latency of each command ends up in the suite's
+ * command metrics.
+ */
+public final class DriverFactory {
+    private static final Logger logger = LogManager.getLogger(DriverFactory.class);
+
+    private static final String WINDOW_SIZE = System.getProperty("driver.windowSize", "1920,1080");
+    private static final Map<String, LongSummaryStatistics> LAUNCH_TIMES = new ConcurrentHashMap<>();
+    private static final boolean INSTRUMENTATION = Boolean.parseBoolean(System.getProperty("driver.instrumentation", "true"));
+    private static final CommandTimingListener TIMING_LISTENER = new CommandTimingListener();
+    // Chosen on first use rather than in the static initializer, so a bad -Ddriver.profile fails with its own message
+    private static volatile DriverProfile activeProfile;
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Picks the profile for the suite about to run. Called when the suite starts, by {@code DriverLifecycleListener}.
+     */
+    public static void configure(ISuite suite) {
+        activeProfile = DriverProfile.select(suite);
+        logger.info("Using the {} driver profile for suite '{}'", activeProfile, suite.getName());
+    }
+
+    public static DriverProfile getActiveProfile() {
+        DriverProfile profile = activeProfile;
+        if (profile == null) {
+            profile = DriverProfile.select(null);
+            activeProfile = profile;
+        }
+        return profile;
+    }
+
+    public static WebDriver create(String browser) {
+        return create(browser, getActiveProfile(), options -> {
+        });
+    }
+
+    /**
+     * Adds browser preferences to options built by {@link #options}, keeping the ones the profile already set
+     * (e.g. images switched off by {@link DriverProfile#FAST}). Meant for customizers.
+     */
+    @SuppressWarnings("unchecked")
+    public static void mergePrefs(MutableCapabilities options, Map<String, Object> prefs) {
+        switch (options) {
+            case FirefoxOptions firefoxOptions -> prefs.forEach(firefoxOptions::addPreference);
+            case ChromiumOptions<?> chromiumOptions -> {
+                Map<String, Object> merged = new HashMap<>();
+                String vendorKey = chromiumOptions instanceof EdgeOptions ? EdgeOptions.CAPABILITY : ChromeOptions.CAPABILITY;
+                if (chromiumOptions.getCapability(vendorKey) instanceof Map<?, ?> vendorOptions
+                        && vendorOptions.get("prefs") instanceof Map<?, ?> existing) {
+                    merged.putAll((Map<String, Object>) existing);
+                }
+                merged.putAll(prefs);
+                chromiumOptions.setExperimentalOption("prefs", merged);
+            }
+            default -> throw new IllegalArgumentException("Unsupported options " + options.getClass().getName());
+        }
+    }
+
+    public static WebDriver create(String browser, DriverProfile profile, Consumer<MutableCapabilities> customizer) {
+        MutableCapabilities options = options(browser, profile);
+        customizer.accept(options);
+        long start = System.nanoTime();
+        WebDriver driver = switch (options) {
+            case FirefoxOptions firefoxOptions -> new FirefoxDriver(firefoxOptions);
+            case EdgeOptions edgeOptions -> new EdgeDriver(edgeOptions);
+            case ChromeOptions chromeOptions -> new ChromeDriver(chromeOptions);
+            default -> throw new IllegalArgumentException("Unsupported options " + options.getClass().getName());
+        };
+        if (profile == DriverProfile.FIDELITY) {
+            driver.manage().window().maximize();
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        // MutationWait slices its async scripts to stay below this
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+        recordLaunch(browser, profile, System.nanoTime() - start);
+        NavigationListener navigation = new NavigationListener();
+        WebDriver decorated = INSTRUMENTATION
+                ? new EventFiringDecorator<>(navigation, TIMING_LISTENER).decorate(driver)
+                : new EventFiringDecorator<>(navigation).decorate(driver);
+        navigation.register(decorated);
+        return decorated;
+    }
+
+    public static MutableCapabilities options(String browser, DriverProfile profile) {
+        return switch (browser.toLowerCase()) {
+            case "firefox" -> firefoxOptions(profile);
+            case "edge" -> chromiumOptions(new EdgeOptions(), profile);
+            default -> chromiumOptions(new ChromeOptions(), profile);
+        };
+    }
+
+    /**
+     * Launch statistics in milliseconds, keyed by {@code browser/profile}.
+     */
+    public static Map<String, LongSummaryStatistics> getLaunchTimes() {
+        return Map.copyOf(LAUNCH_TIMES);
+    }
+
+    public static void report() {
+        LAUNCH_TIMES.forEach((key, stats) -> logger.info("Launch time [{}] - launches: {}, avg: {} ms, min: {} ms, max: {} ms",
+                key, stats.getCount(), Math.round(stats.getAverage()), stats.getMin(), stats.getMax()));
+    }
+
+    private static <T extends ChromiumOptions<T>> T chromiumOptions(T options, DriverProfile profile) {
+        if (profile == DriverProfile.FAST) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            options.addArguments("--headless=new", "--window-size=" + WINDOW_SIZE, "--blink-settings=imagesEnabled=false",
+                    "--disable-extensions", "--disable-gpu", "--disable-background-networking", "--no-first-run",
+                    "--disable-default-apps", "--mute-audio");
+        }
+        return options;
+    }
+
+    private static FirefoxOptions firefoxOptions(DriverProfile profile) {
+        FirefoxOptions options = new FirefoxOptions();
+        if (profile == DriverProfile.FAST) {
+            String[] size = WINDOW_SIZE.split(",");
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            options.addArguments("-headless", "--width=" + size[0], "--height=" + size[1]);
+            options.addPreference("permissions.default.image", 2);
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("app.update.enabled", false);
+            options.addPreference("network.prefetch-next", false);
+            options.addPreference("browser.safebrowsing.malware.enabled", false);
+        }
+        return options;
+    }
+
+    private static void recordLaunch(String browser, DriverProfile profile, long nanos) {
+        LongSummaryStatistics stats = LAUNCH_TIMES.computeIfAbsent(browser.toLowerCase() + "/" + profile, key -> new LongSummaryStatistics());
+        synchronized (stats) {
+            stats.accept(Duration.ofNanos(nanos).toMillis());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.saddy.framework.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a bounded set of browser sessions alive for the whole suite and lends them out to tests.
+ * <p>
+ * A returned session is reset (stray windows closed, cookies and storage cleared, back on the home page)
+ * before it is handed out again. Sessions are recycled after {@code driver.pool.maxUses} tests and thrown
+ * away as soon as they fail a health check. The borrowing thread can find its session through
+ * {@link DriverRegistry} until it is released.
+ * <p>
+ * Configuration (system properties):
+ * <ul>
+ *     <li>{@code driver.pool.size} - maximum live sessions per browser (default 2)</li>
+ *     <li>{@code driver.pool.maxUses} - tests served before a session is recycled (default 25)</li>
+ *     <li>{@code driver.pool.acquireTimeout} - seconds to wait for a free session (default 120)</li>
+ *     <li>{@code baseUrl} - home page every session is reset to</li>
+ * </ul>
+ */
+public class DriverPool {
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+
+    public static final String BASE_URL = System.getProperty("baseUrl", "https://panjatan.netlify.app/");
+
+    private static final Map<String, DriverPool> POOLS = new ConcurrentHashMap<>();
+    private static volatile int resizedTo;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdownAll, "driver-pool-shutdown"));
+    }
+
+    private final String browser;
+    private volatile int maxSize;
+    private final int maxUses;
+    private final Duration acquireTimeout;
+    private final LinkedBlockingDeque<PooledDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledDriver> all = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AcquireStats stats = new AcquireStats();
+
+    DriverPool(String browser, int maxSize, int maxUses, Duration acquireTimeout) {
+        this.browser = browser;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public static DriverPool forBrowser(String browser) {
+        DriverPool existing = POOLS.get(browser.toLowerCase());
+        if (existing != null) {
+            return existing;
+        }
+        DriverPool pool = POOLS.computeIfAbsent(browser.toLowerCase(), name -> new DriverPool(name,
+                Integer.getInteger("driver.pool.size", 2),
+                Integer.getInteger("driver.pool.maxUses", 25),
+                Duration.ofSeconds(Integer.getInteger("driver.pool.acquireTimeout", 120))));
+        if (resizedTo > 0) {
+            redistribute();
+        }
+        return pool;
+    }
+
+    /**
+     * Sets how many sessions may be live across all pools together; the limit is split evenly between the
+     * browsers. Growing takes effect on the next acquire, shrinking as sessions come back.
+     */
+    public static void resizeAll(int totalSessions) {
+        resizedTo = Math.max(1, totalSessions);
+        redistribute();
+    }
+
+    // Every pool keeps at least one session, so several browsers can slightly exceed a very small limit
+    private static synchronized void redistribute() {
+        List<DriverPool> pools = new ArrayList<>(POOLS.values());
+        for (int i = 0; i < pools.size(); i++) {
+            int share = resizedTo / pools.size() + (i < resizedTo % pools.size() ? 1 : 0);
+            pools.get(i).maxSize = Math.max(1, share);
+        }
+    }
+
+    public static int totalLiveSessions() {
+        return POOLS.values().stream().mapToInt(DriverPool::getLiveSessions).sum();
+    }
+
+    public static void shutdownAll() {
+        POOLS.values().forEach(DriverPool::shutdown);
+    }
+
+    /**
+     * Hands out an idle healthy session, launching a new one while the pool is below its size.
+     * Blocks until a session is returned (or finishes warming up) when all of them are busy.
+     */
+    public PooledDriver acquire() {
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeout.toNanos();
+        while (true) {
+            boolean cold = false;
+            PooledDriver session = idle.pollFirst();
+            if (session == null && reserveSlot()) {
+                session = launch();
+                cold = true;
+            }
+            if (session == null) {
+                session = awaitIdle(deadline);
+            }
+            if (session == null) {
+                continue;
+            }
+            if (isHealthy(session)) {
+                session.markUsed();
+                DriverRegistry.register(session.getDriver());
+                if (cold) {
+                    stats.recordCold(System.nanoTime() - start);
+                } else {
+                    stats.recordWarm(System.nanoTime() - start);
+                }
+                return session;
+            }
+            logger.warn("Discarding unhealthy {}", session);
+            discard(session);
+        }
+    }
+
+    /**
+     * Launches a session in the background and parks it in the idle queue. Returns false without
+     * launching when the pool is already full.
+     */
+    boolean warmUp() {
+        if (!reserveSlot()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        PooledDriver session = launch();
+        stats.recordBackgroundLaunch(System.nanoTime() - start);
+        idle.offerLast(session);
+        return true;
+    }
+
+    /**
+     * Takes a session back after a test. It is reset for the next test, or quit when it has reached
+     * its use limit or can no longer be reset.
+     */
+    public void release(PooledDriver session) {
+        if (session == null || !all.contains(session)) {
+            return;
+        }
+        DriverRegistry.unregister(session.getDriver());
+        if (session.getUses() >= maxUses) {
+            logger.debug("Recycling {} after reaching {} uses", session, maxUses);
+            discard(session);
+            return;
+        }
+        if (live.get() > maxSize) {
+            logger.debug("Closing {} because the pool was shrunk to {}", session, maxSize);
+            discard(session);
+            return;
+        }
+        try {
+            reset(session);
+            idle.offerFirst(session);
+        } catch (WebDriverException e) {
+            logger.warn("Discarding {} that failed to reset: {}", session, e.getMessage());
+            discard(session);
+        }
+    }
+
+    public void shutdown() {
+        List<PooledDriver> sessions = new ArrayList<>(all);
+        sessions.forEach(this::discard);
+        idle.clear();
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public int getLiveSessions() {
+        return live.get();
+    }
+
+    public int getIdleSessions() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public AcquireStats getStats() {
+        return stats;
+    }
+
+    static Map<String, DriverPool> pools() {
+        return POOLS;
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = live.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!live.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private PooledDriver launch() {
+        try {
+            PooledDriver session = newSession();
+            all.add(session);
+            logger.debug("Launched {} ({} live)", session, live.get());
+            return session;
+        } catch (RuntimeException e) {
+            live.decrementAndGet();
+            throw e;
+        }
+    }
+
+    // Waits in short slices so a slot freed by a failed launch or a recycled session is noticed.
+    private PooledDriver awaitIdle(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new IllegalStateException("No %s session became free within %s (pool size %d)"
+                    .formatted(browser, acquireTimeout, maxSize));
+        }
+        try {
+            return idle.pollFirst(Math.min(remaining, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + browser + " session", e);
+        }
+    }
+
+    private void discard(PooledDriver session) {
+        if (!all.remove(session)) {
+            return;
+        }
+        idle.remove(session);
+        live.decrementAndGet();
+        try {
+            session.getDriver().quit();
+        } catch (WebDriverException e) {
+            logger.debug("Ignoring error while quitting {}: {}", session, e.getMessage());
+        }
+    }
+
+    private boolean isHealthy(PooledDriver session) {
+        try {
+            return session.getDriver().getWindowHandle() != null;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // One navigation per reset. Storage can only be cleared from a page of the site: on the site it is cleared
+    // before the reload; a session that ended elsewhere is cleared right after landing on the home page.
+    private void reset(PooledDriver session) {
+        WebDriver driver = session.getDriver();
+        closeStrayWindows(driver, session.getMainWindow());
+        String currentUrl = driver.getCurrentUrl();
+        boolean onSite = currentUrl != null && currentUrl.startsWith(BASE_URL);
+        if (onSite) {
+            clearStorage(driver);
+        }
+        driver.manage().deleteAllCookies();
+        driver.get(BASE_URL);
+        if (!onSite) {
+            clearStorage(driver);
+        }
+    }
+
+    private static void clearStorage(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+    }
+
+    // The handle set has no defined order, so the window to keep is the one recorded when the session started.
+    private static void closeStrayWindows(WebDriver driver, String mainWindow) {
+        Set<String> handles = driver.getWindowHandles();
+        if (!handles.contains(mainWindow)) {
+            throw new NoSuchWindowException("The main window of the session was closed");
+        }
+        for (String handle : handles) {
+            if (!handle.equals(mainWindow)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(mainWindow);
+    }
+
+    // A browser that cannot open the home page is quit here, nobody else holds it yet.
+    private PooledDriver newSession() {
+        WebDriver driver = DriverFactory.create(browser);
+        try {
+            driver.get(BASE_URL);
+            return new PooledDriver(browser, driver, driver.getWindowHandle());
+        } catch (RuntimeException e) {
+            try {
+                driver.quit();
+            } catch (WebDriverException quitError) {
+                e.addSuppressed(quitError);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.saddy.framework.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.xml.XmlTest;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Launches browser sessions on background threads as soon as the suite starts, so the first tests
+ * find sessions in {@link DriverPool} that are already open on the base URL.
+ * <p>
+ * The browsers are taken from the {@code browser} parameters of the suite and its tests (chrome when none
+ * is given). {@code driver.prewarm.count} sets how many sessions are launched per browser (defaults to the
+ * pool size); {@code driver.prewarm=false} turns pre-warming off.
+ */
+public class DriverPreWarmer {
+    private static final Logger logger = LogManager.getLogger(DriverPreWarmer.class);
+
+    private static final Set<String> STARTED_SUITES = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "driver-prewarm-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DriverPreWarmer() {
+    }
+
+    /**
+     * Starts warming sessions for the given suite. Safe to call from every {@code @BeforeSuite};
+     * only the first call per suite does anything, and it returns without waiting for the browsers.
+     */
+    public static void start(ISuite suite) {
+        if (!Boolean.parseBoolean(System.getProperty("driver.prewarm", "true"))
+                || !STARTED_SUITES.add(suite.getName())) {
+            return;
+        }
+        for (String browser : browsersOf(suite)) {
+            DriverPool pool = DriverPool.forBrowser(browser);
+            int count = Math.min(Integer.getInteger("driver.prewarm.count", pool.getMaxSize()), pool.getMaxSize());
+            logger.info("Pre-warming {} {} session(s) for suite '{}'", count, browser, suite.getName());
+            for (int i = 0; i < count; i++) {
+                EXECUTOR.submit(() -> warmUp(pool));
+            }
+        }
+    }
+
+    /**
+     * Logs, per browser, how long tests waited for a warm session against what a cold launch costs.
+     */
+    public static void report() {
+        DriverPool.pools().values().forEach(pool ->
+                logger.info("Driver pool [{}] - {}", pool.getBrowser(), pool.getStats()));
+    }
+
+    static Set<String> browsersOf(ISuite suite) {
+        Set<String> browsers = new LinkedHashSet<>();
+        String suiteBrowser = suite.getXmlSuite().getParameter("browser");
+        if (suiteBrowser != null) {
+            browsers.add(suiteBrowser.toLowerCase());
+        }
+        for (XmlTest test : suite.getXmlSuite().getTests()) {
+            String browser = test.getParameter("browser");
+            if (browser != null) {
+                browsers.add(browser.toLowerCase());
+            }
+        }
+        if (browsers.isEmpty()) {
+            browsers.add("chrome");
+        }
+        return browsers;
+    }
+
+    private static void warmUp(DriverPool pool) {
+        try {
+            pool.warmUp();
+        } catch (RuntimeException e) {
+            logger.warn("Could not pre-warm a {} session: {}", pool.getBrowser(), e.getMessage());
+        }
+    }
+}
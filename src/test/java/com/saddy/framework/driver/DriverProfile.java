@@ -0,0 +1,34 @@
+package com.saddy.framework.driver;
+
+import org.testng.ISuite;
+
+import java.util.Arrays;
+
+/**
+ * Named sets of browser options. {@code FAST} trades rendering fidelity for launch and page-load speed;
+ * {@code FIDELITY} is a normal, fully rendered and maximized browser.
+ */
+public enum DriverProfile {
+    FAST,
+    FIDELITY;
+
+    /**
+     * The {@code driver.profile} system property wins over the {@code profile} parameter of the suite,
+     * so a profile can be forced from the command line. Defaults to {@link #FIDELITY}.
+     */
+    public static DriverProfile select(ISuite suite) {
+        String name = System.getProperty("driver.profile");
+        if (name == null && suite != null) {
+            name = suite.getXmlSuite().getParameter("profile");
+        }
+        if (name == null) {
+            return FIDELITY;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown driver profile '%s', use one of %s (driver.profile or the suite's profile parameter)"
+                    .formatted(name, Arrays.toString(values())), e);
+        }
+    }
+}
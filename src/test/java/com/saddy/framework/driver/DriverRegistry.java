@@ -0,0 +1,37 @@
+package com.saddy.framework.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Optional;
+
+/**
+ * Knows which browser session the current thread is using, so listeners can reach the driver of the test
+ * that triggered them instead of a shared static one.
+ * <p>
+ * {@link DriverPool} registers a session on the thread that acquires it and removes it on release. A driver
+ * bound through {@link DriverContext} takes precedence.
+ */
+public final class DriverRegistry {
+    private static final ThreadLocal<WebDriver> CURRENT = new ThreadLocal<>();
+
+    private DriverRegistry() {
+    }
+
+    public static void register(WebDriver driver) {
+        CURRENT.set(driver);
+    }
+
+    // Only clears the slot if it still holds this driver; a thread may already have moved on to another session.
+    public static void unregister(WebDriver driver) {
+        if (CURRENT.get() == driver) {
+            CURRENT.remove();
+        }
+    }
+
+    public static Optional<WebDriver> current() {
+        if (DriverContext.isBound()) {
+            return Optional.of(DriverContext.current());
+        }
+        return Optional.ofNullable(CURRENT.get());
+    }
+}
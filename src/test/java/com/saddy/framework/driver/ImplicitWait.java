@@ -0,0 +1,30 @@
+package com.saddy.framework.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Runs a check without the implicit wait that {@link DriverFactory} sets on every session. An element lookup
+ * that is expected to fail would otherwise block for the full implicit wait first, and inside an explicit
+ * wait the two timeouts add up.
+ */
+public final class ImplicitWait {
+
+    private ImplicitWait() {
+    }
+
+    public static <T> T suspended(WebDriver driver, Supplier<T> action) {
+        Duration previous = driver.manage().timeouts().getImplicitWaitTimeout();
+        if (previous.isZero()) {
+            return action.get();
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return action.get();
+        } finally {
+            driver.manage().timeouts().implicitlyWait(previous);
+        }
+    }
+}
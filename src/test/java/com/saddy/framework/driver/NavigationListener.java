@@ -0,0 +1,56 @@
+package com.saddy.framework.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Counts the navigations (get, back, forward, refresh) and window or frame switches made through a driver
+ * from {@link DriverFactory}. Anything holding on to elements, like the page element cache, compares the count
+ * with the one it saw last to know the document it resolved against is gone, without asking the browser.
+ * <p>
+ * DOM changes made by the page itself are not counted; elements they remove show up as stale on their next use.
+ */
+public final class NavigationListener implements WebDriverListener {
+    private static final Map<WebDriver, NavigationListener> LISTENERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private volatile long generation;
+
+    NavigationListener() {
+    }
+
+    /**
+     * Ties the listener to the decorated driver handed out to tests.
+     */
+    void register(WebDriver decorated) {
+        LISTENERS.put(decorated, this);
+    }
+
+    /**
+     * The number of document changes seen for the driver so far, or -1 for a driver not created through
+     * {@link DriverFactory}.
+     */
+    public static long generation(WebDriver driver) {
+        NavigationListener listener = LISTENERS.get(driver);
+        return listener == null ? -1 : listener.generation;
+    }
+
+    @Override
+    public void afterGet(WebDriver driver, String url) {
+        generation++;
+    }
+
+    @Override
+    public void afterAnyNavigationCall(WebDriver.Navigation navigation, Method method, Object[] args, Object result) {
+        generation++;
+    }
+
+    @Override
+    public void afterAnyTargetLocatorCall(WebDriver.TargetLocator targetLocator, Method method, Object[] args, Object result) {
+        generation++;
+    }
+}
@@ -0,0 +1,50 @@
+package com.saddy.framework.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A browser session owned by a {@link DriverPool}. Tests only see the wrapped {@link WebDriver};
+ * the pool uses the bookkeeping here to decide when the session must be recycled.
+ */
+public class PooledDriver {
+    private final String browser;
+    private final WebDriver driver;
+    private final String mainWindow;
+    private final long createdAt = System.currentTimeMillis();
+    private int uses;
+
+    PooledDriver(String browser, WebDriver driver, String mainWindow) {
+        this.browser = browser;
+        this.driver = driver;
+        this.mainWindow = mainWindow;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public String getMainWindow() {
+        return mainWindow;
+    }
+
+    public int getUses() {
+        return uses;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    void markUsed() {
+        uses++;
+    }
+
+    @Override
+    public String toString() {
+        return "%s session (uses: %d)".formatted(browser, uses);
+    }
+}
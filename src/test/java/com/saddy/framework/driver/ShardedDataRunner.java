@@ -0,0 +1,282 @@
+package com.saddy.framework.driver;
+
+import com.saddy.enumdemo.TestStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.SkipException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the rows of a data provider concurrently, each row on a browser session borrowed for that row only.
+ * <p>
+ * Rows are read lazily from the iterator and dealt round-robin into one deque per shard, never more than
+ * {@code lookahead} rows per shard ahead of the workers, so Excel and CSV sources stream instead of being
+ * loaded first. Each worker takes rows from the head of its own deque; when that is empty it steals from the
+ * tail of the fullest other shard, so a shard that drew slow rows does not hold up the run. Every row gets a
+ * {@link RowResult} with its status, the time it waited for a session and the time it ran.
+ */
+public final class ShardedDataRunner {
+    private static final Logger logger = LogManager.getLogger(ShardedDataRunner.class);
+
+    private final Supplier<WebDriver> borrow;
+    private final Consumer<WebDriver> giveBack;
+    private int shards = Integer.getInteger("data.shards", Integer.getInteger("driver.pool.size", 2));
+    private int lookahead = 4;
+
+    private ShardedDataRunner(Supplier<WebDriver> borrow, Consumer<WebDriver> giveBack) {
+        this.borrow = borrow;
+        this.giveBack = giveBack;
+    }
+
+    /**
+     * Rows run on sessions of the given pool, reset by the pool between rows like between tests.
+     */
+    public static ShardedDataRunner onPool(DriverPool pool) {
+        // Borrow and give back always happen on the same worker thread
+        ThreadLocal<PooledDriver> sessions = new ThreadLocal<>();
+        ShardedDataRunner runner = new ShardedDataRunner(() -> {
+            PooledDriver session = pool.acquire();
+            sessions.set(session);
+            return session.getDriver();
+        }, driver -> {
+            pool.release(sessions.get());
+            sessions.remove();
+        });
+        return runner.shards(pool.getMaxSize());
+    }
+
+    /**
+     * Rows run on whatever the supplier hands out; for sessions that do not come from a {@link DriverPool}.
+     */
+    public static ShardedDataRunner withSessions(Supplier<WebDriver> borrow, Consumer<WebDriver> giveBack) {
+        return new ShardedDataRunner(borrow, giveBack);
+    }
+
+    public ShardedDataRunner shards(int shards) {
+        this.shards = Math.max(1, shards);
+        return this;
+    }
+
+    public ShardedDataRunner lookahead(int rowsPerShard) {
+        this.lookahead = Math.max(1, rowsPerShard);
+        return this;
+    }
+
+    public RunReport run(Iterator<Object[]> rows, RowTask task) {
+        long start = System.nanoTime();
+        List<LinkedBlockingDeque<PendingRow>> queues = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            queues.add(new LinkedBlockingDeque<>());
+        }
+        Semaphore window = new Semaphore(shards * lookahead);
+        List<RowResult> results = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger stolen = new AtomicInteger();
+        Feed feed = new Feed();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            int own = shard;
+            workers.add(Thread.ofPlatform().name("data-shard-" + shard).start(() -> {
+                PendingRow next;
+                while ((next = take(queues, own, feed)) != null) {
+                    window.release();
+                    boolean wasStolen = next.index % shards != own;
+                    if (wasStolen) {
+                        stolen.incrementAndGet();
+                    }
+                    RowResult result;
+                    try {
+                        result = runRow(next, own, wasStolen, task);
+                    } catch (Throwable e) {
+                        // e.g. giving the session back failed; the worker must live on or the feeder waits forever
+                        result = new RowResult(next.index, next.parameters, own, wasStolen, TestStatus.BLOCK, 0, 0, e);
+                    }
+                    results.add(result);
+                }
+            }));
+        }
+
+        int index = 0;
+        try {
+            while (rows.hasNext()) {
+                window.acquire();
+                queues.get(index % shards).offerLast(new PendingRow(index, rows.next()));
+                index++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while feeding the data shards", e);
+        } finally {
+            // Rows already queued still run when the source fails half way
+            feed.done = true;
+            joinAll(workers);
+        }
+
+        List<RowResult> sorted = new ArrayList<>(results);
+        sorted.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        RunReport report = new RunReport(sorted, shards, stolen.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Sharded data run finished: {}", report);
+        return report;
+    }
+
+    private RowResult runRow(PendingRow pending, int shard, boolean stolen, RowTask task) {
+        long requested = System.nanoTime();
+        WebDriver driver;
+        try {
+            driver = borrow.get();
+        } catch (RuntimeException e) {
+            return new RowResult(pending.index, pending.parameters, shard, stolen, TestStatus.BLOCK,
+                    millisSince(requested), 0, e);
+        }
+        long started = System.nanoTime();
+        long waited = TimeUnit.NANOSECONDS.toMillis(started - requested);
+        try {
+            DriverContext.run(driver, () -> task.runUnchecked(driver, pending.parameters));
+            return new RowResult(pending.index, pending.parameters, shard, stolen, TestStatus.PASS, waited, millisSince(started), null);
+        } catch (Throwable e) {
+            Throwable cause = e instanceof TaskFailure failure ? failure.getCause() : e;
+            TestStatus status = cause instanceof SkipException ? TestStatus.SKIPP : TestStatus.FAIL;
+            return new RowResult(pending.index, pending.parameters, shard, stolen, status, waited, millisSince(started), cause);
+        } finally {
+            giveBack.accept(driver);
+        }
+    }
+
+    // Own shard first, then the tail of the busiest other shard; waits briefly while the feed is still open.
+    private static PendingRow take(List<LinkedBlockingDeque<PendingRow>> queues, int own, Feed feed) {
+        while (true) {
+            boolean finished = feed.done;
+            PendingRow row = queues.get(own).pollFirst();
+            if (row != null) {
+                return row;
+            }
+            LinkedBlockingDeque<PendingRow> victim = null;
+            for (LinkedBlockingDeque<PendingRow> queue : queues) {
+                if (victim == null || queue.size() > victim.size()) {
+                    victim = queue;
+                }
+            }
+            row = victim.pollLast();
+            if (row != null) {
+                return row;
+            }
+            if (finished && queues.stream().allMatch(LinkedBlockingDeque::isEmpty)) {
+                return null;
+            }
+            try {
+                row = queues.get(own).pollFirst(20, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            if (row != null) {
+                return row;
+            }
+        }
+    }
+
+    private static void joinAll(List<Thread> workers) {
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long millisSince(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanos);
+    }
+
+    /**
+     * The work done for one row. It runs with the driver bound to {@link DriverContext} as well.
+     */
+    @FunctionalInterface
+    public interface RowTask {
+        void run(WebDriver driver, Object[] row) throws Exception;
+
+        private void runUnchecked(WebDriver driver, Object[] row) {
+            try {
+                run(driver, row);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new TaskFailure(e);
+            }
+        }
+    }
+
+    public record RowResult(int index, Object[] parameters, int shard, boolean stolen, TestStatus status,
+                            long waitMillis, long durationMillis, Throwable error) {
+
+        @Override
+        public String toString() {
+            return "row %d %s %s on shard %d%s in %d ms (waited %d ms)%s".formatted(index, Arrays.toString(parameters),
+                    status, shard, stolen ? " (stolen)" : "", durationMillis, waitMillis,
+                    error == null ? "" : " - " + error);
+        }
+    }
+
+    public record RunReport(List<RowResult> results, int shards, int stolenRows, long wallMillis) {
+
+        public List<RowResult> failures() {
+            return results.stream().filter(result -> result.status() != TestStatus.PASS && result.status() != TestStatus.SKIPP).toList();
+        }
+
+        public long count(TestStatus status) {
+            return results.stream().filter(result -> result.status() == status).count();
+        }
+
+        /**
+         * Fails the calling test with every failed row listed, instead of only the first one.
+         */
+        public void assertAllPassed() {
+            List<RowResult> failures = failures();
+            if (!failures.isEmpty()) {
+                AssertionError error = new AssertionError(failures.size() + " of " + results.size() + " rows failed:\n"
+                        + String.join("\n", failures.stream().map(RowResult::toString).toList()));
+                failures.stream().map(RowResult::error).filter(Objects::nonNull).forEach(error::addSuppressed);
+                throw error;
+            }
+        }
+
+        @Override
+        public String toString() {
+            long busy = results.stream().mapToLong(RowResult::durationMillis).sum();
+            long slowest = results.stream().mapToLong(RowResult::durationMillis).max().orElse(0);
+            return "%d rows on %d shards in %d ms (%d ms of row time, slowest %d ms): %d passed, %d failed, %d skipped, %d blocked, %d stolen"
+                    .formatted(results.size(), shards, wallMillis, busy, slowest, count(TestStatus.PASS), count(TestStatus.FAIL),
+                            count(TestStatus.SKIPP), count(TestStatus.BLOCK), stolenRows);
+        }
+    }
+
+    private record PendingRow(int index, Object[] parameters) {
+    }
+
+    private static final class Feed {
+        private volatile boolean done;
+    }
+
+    private static final class TaskFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TaskFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
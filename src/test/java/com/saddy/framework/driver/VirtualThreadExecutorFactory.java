@@ -0,0 +1,39 @@
+package com.saddy.framework.driver;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every parallel TestNG worker on its own virtual thread. The pool sizes TestNG asks for are ignored on
+ * purpose: blocked tests cost almost nothing, and browser tests are limited by {@link BrowserCapacity}.
+ * <p>
+ * TestNG picks it up from its {@code -threadpoolfactoryclass} option, which the {@code virtual-threads} Maven
+ * profile passes. With adaptive concurrency on, {@link AdaptiveExecutorFactory} takes over and keeps the virtual
+ * threads but bounds their number.
+ */
+public class VirtualThreadExecutorFactory implements IExecutorServiceFactory {
+    private static volatile boolean installed;
+
+    public VirtualThreadExecutorFactory() {
+        installed = true;
+    }
+
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        return Executors.newThreadPerTaskExecutor(threadFactory());
+    }
+
+    static ThreadFactory threadFactory() {
+        return Thread.ofVirtual().name("testng-virtual-", 0).factory();
+    }
+}
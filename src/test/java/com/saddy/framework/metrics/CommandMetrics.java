@@ -0,0 +1,114 @@
+package com.saddy.framework.metrics;
+
+import com.saddy.framework.pages.BasePage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects WebDriver command latencies per test method and, within a test, per page object and command.
+ * The current test is a thread-local set around each test method; commands issued elsewhere (pre-warming,
+ * pool resets, configuration methods) are filed under {@link #OUTSIDE_TESTS}.
+ */
+public final class CommandMetrics {
+    public static final String OUTSIDE_TESTS = "(outside tests)";
+    private static final String NO_PAGE = "-";
+
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Map<String, TestMetrics> TESTS = new ConcurrentHashMap<>();
+
+    private CommandMetrics() {
+    }
+
+    public static void startTest(String testId) {
+        CURRENT_TEST.set(testId);
+    }
+
+    public static void endTest() {
+        CURRENT_TEST.remove();
+    }
+
+    static void record(String command, long nanos) {
+        String testId = CURRENT_TEST.get();
+        TESTS.computeIfAbsent(testId == null ? OUTSIDE_TESTS : testId, id -> new TestMetrics())
+                .record(currentPage(), command, nanos);
+    }
+
+    public static Map<String, Object> summaryOf(String testId) {
+        TestMetrics metrics = TESTS.get(testId);
+        return metrics == null ? null : metrics.summary(testId);
+    }
+
+    /**
+     * Per-test breakdown of every test seen so far, slowest total first.
+     */
+    public static Map<String, Object> report() {
+        List<Map<String, Object>> tests = new ArrayList<>();
+        TESTS.forEach((testId, metrics) -> tests.add(metrics.summary(testId)));
+        tests.sort((a, b) -> Double.compare((Double) b.get("totalWaitMs"), (Double) a.get("totalWaitMs")));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tests", tests);
+        return report;
+    }
+
+    public static void reset() {
+        TESTS.clear();
+    }
+
+    // The innermost page object on the stack is the one issuing the command.
+    private static String currentPage() {
+        return STACK_WALKER.walk(frames -> frames
+                .map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> BasePage.class.isAssignableFrom(type) && type != BasePage.class)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(NO_PAGE));
+    }
+
+    private static class TestMetrics {
+        private final LatencyHistogram all = new LatencyHistogram();
+        private final Map<String, LatencyHistogram> byCommand = new ConcurrentHashMap<>();
+
+        void record(String page, String command, long nanos) {
+            all.record(nanos);
+            byCommand.computeIfAbsent(page + " " + command, key -> new LatencyHistogram()).record(nanos);
+        }
+
+        Map<String, Object> summary(String testId) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("test", testId);
+            summary.put("commands", all.getCount());
+            summary.put("totalWaitMs", round(all.getTotalMillis()));
+            putPercentiles(summary, all);
+            List<Map<String, Object>> commands = new ArrayList<>();
+            byCommand.forEach((key, histogram) -> {
+                Map<String, Object> command = new LinkedHashMap<>();
+                String[] parts = key.split(" ", 2);
+                command.put("page", parts[0]);
+                command.put("command", parts[1]);
+                command.put("count", histogram.getCount());
+                command.put("totalMs", round(histogram.getTotalMillis()));
+                putPercentiles(command, histogram);
+                commands.add(command);
+            });
+            commands.sort((a, b) -> Double.compare((Double) b.get("totalMs"), (Double) a.get("totalMs")));
+            summary.put("byCommand", commands);
+            return summary;
+        }
+
+        private static void putPercentiles(Map<String, Object> target, LatencyHistogram histogram) {
+            target.put("p50Ms", round(histogram.percentileMillis(50)));
+            target.put("p95Ms", round(histogram.percentileMillis(95)));
+            target.put("p99Ms", round(histogram.percentileMillis(99)));
+            target.put("maxMs", round(histogram.getMaxMillis()));
+        }
+
+        private static double round(double millis) {
+            return Math.round(millis * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.saddy.framework.metrics;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * Times every call made through a driver decorated with {@code EventFiringDecorator} (driver, elements,
+ * navigation, options, alerts) and hands the latency to {@link CommandMetrics}. Calls the client answers
+ * without talking to the driver, such as {@code manage()} or {@code switchTo()}, are not counted.
+ */
+public class CommandTimingListener implements WebDriverListener {
+    private static final Set<String> LOCAL_CALLS = Set.of(
+            "WebDriver.manage", "WebDriver.navigate", "WebDriver.switchTo",
+            "Options.timeouts", "Options.window", "Options.logs",
+            "HasCapabilities.getCapabilities", "WrapsDriver.getWrappedDriver", "WrapsElement.getWrappedElement");
+
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(commandName(method))) {
+            startTimes.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private void finish(Method method) {
+        String command = commandName(method);
+        if (LOCAL_CALLS.contains(command)) {
+            return;
+        }
+        Long start = startTimes.get().poll();
+        if (start != null) {
+            CommandMetrics.record(command, System.nanoTime() - start);
+        }
+    }
+
+    private static String commandName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -1,6 +1,9 @@
 package com.saddy.framework.pages;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -8,43 +11,282 @@ import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class BasePage {
+//    Reads many locators in one executeScript call. Each result is wrapped in an array so a missing
+//    element (null) can be told apart from an element whose value is null.
+    private static final String BATCH_READ_SCRIPT = JsLocators.FIND_FUNCTION + """
+            var locators = arguments[0], mode = arguments[1], attribute = arguments[2];
+            return locators.map(function (locator) {
+                var element = findElement(locator);
+                if (!element) return null;
+                if (mode === 'text') return isVisible(element) ? [element.innerText.trim()] : null;
+                if (mode === 'attribute') return [element.getAttribute(attribute)];
+                return [isVisible(element), !element.disabled, !!(element.checked || element.selected)];
+            });
+            """;
+//    Fills many fields in one executeScript call. Values are set the way the browser would (through the native
+//    value setter, so frameworks tracking the property notice) followed by input and change events; checkboxes
+//    and radios are clicked so their handlers run. Returns a status per field; anything but 'ok' is filled
+//    again through WebDriver.
+    private static final String FILL_FORM_SCRIPT = JsLocators.FIND_FUNCTION + """
+            function fire(element, type) {
+                element.dispatchEvent(new Event(type, {bubbles: true}));
+            }
+            function setValue(element, value) {
+                var prototype = element instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;
+                Object.getOwnPropertyDescriptor(prototype, 'value').set.call(element, value);
+            }
+            return arguments[0].map(function (field) {
+                var element = findElement(field[0]), value = field[1];
+                if (!element) return 'missing';
+                if (!isVisible(element)) return 'hidden';
+                if (element.disabled || element.readOnly) return 'disabled';
+                element.focus();
+                if (element.tagName === 'SELECT') {
+                    var option = Array.prototype.find.call(element.options, function (o) { return o.text.trim() === value; });
+                    if (!option) return 'no-option';
+                    element.value = option.value;
+                    fire(element, 'input');
+                    fire(element, 'change');
+                } else if (element.type === 'checkbox' || element.type === 'radio') {
+                    // same rule as Boolean.parseBoolean, so "true"/"false" strings work like booleans
+                    if (element.checked !== (String(value).toLowerCase() === 'true')) element.click();
+                } else {
+                    setValue(element, value);
+                    fire(element, 'input');
+                    fire(element, 'change');
+                }
+                element.blur();
+                return 'ok';
+            });
+            """;
+
     protected WebDriver driver;
     protected WebDriverWait wait;
+    protected MutationWait mutationWait;
+    private ElementCache elementCache;
+//    -Dwait.engine=mutation switches the waits below from polling WebDriverWait to MutationWait
+    private final boolean mutationWaitsEnabled = "mutation".equalsIgnoreCase(System.getProperty("wait.engine"));
+//    -Delement.cache=false resolves every locator from scratch again
+    private final boolean elementCacheEnabled = Boolean.parseBoolean(System.getProperty("element.cache", "true"));
 //    private WebElement element;
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
         wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+        mutationWait = new MutationWait(driver, Duration.ofSeconds(20));
+    }
+
+//    Created on first use: the cache reads the locator fields of the subclass, which are not set yet while
+//    this constructor runs
+    protected ElementCache elementCache() {
+        if (elementCache == null)
+            elementCache = new ElementCache(driver, this);
+        return elementCache;
     }
 
 
     public WebElement getElement(By locator) {
-         return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return withElement(locator, () -> waitForPresence(locator), element -> true, element -> element);
     }
 
     public void click(By locator) {
-        WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
-        element.click();
+        useElement(locator, () -> waitForClickable(locator), BasePage::isClickable, WebElement::click);
     }
 
     public void sendKeys(By locator, String data) {
 //        element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-        WebElement element = driver.findElement(locator);
-        element.clear();
-        element.sendKeys(data);
+        useElement(locator, () -> driver.findElement(locator), element -> true, element -> {
+            element.clear();
+            element.sendKeys(data);
+        });
     }
 
     public String getText(By locator) {
-        WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-        return element.getText();
+        return withElement(locator, () -> waitForVisibility(locator), WebElement::isDisplayed, WebElement::getText);
+    }
+
+    public void waitForText(By locator, String text) {
+        if (useMutationWait(locator))
+            mutationWait.textPresent(locator, text);
+        else
+            wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
     }
 
     public void selectByVisibleText(By locator, String data) {
-        WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-        Select select = new Select(element);
-        select.selectByVisibleText(data);
+        useElement(locator, () -> waitForVisibility(locator), WebElement::isDisplayed, element -> {
+            Select select = new Select(element);
+            select.selectByVisibleText(data);
+        });
+    }
+
+    private WebElement waitForPresence(By locator) {
+        return useMutationWait(locator)
+                ? mutationWait.presenceOf(locator)
+                : wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    private WebElement waitForClickable(By locator) {
+        return useMutationWait(locator)
+                ? mutationWait.clickable(locator)
+                : wait.until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    private WebElement waitForVisibility(By locator) {
+        return useMutationWait(locator)
+                ? mutationWait.visibilityOf(locator)
+                : wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+//    The same check as ExpectedConditions.elementToBeClickable, on an element we already have
+    private static boolean isClickable(WebElement element) {
+        return element.isDisplayed() && element.isEnabled();
+    }
+
+    private boolean useMutationWait(By locator) {
+        return mutationWaitsEnabled && MutationWait.supports(locator);
+    }
+
+//    Runs the action on the cached element when there is one and it is ready. A stale element means the page
+//    changed, so the cache is dropped; an element that is not interactable yet is waited for like a cache miss.
+    private <T> T withElement(By locator, Supplier<WebElement> resolver, Predicate<WebElement> ready,
+                              Function<WebElement, T> action) {
+        if (!elementCacheEnabled)
+            return action.apply(resolver.get());
+        WebElement element = elementCache().get(locator);
+        if (element != null) {
+            try {
+                if (ready.test(element))
+                    return action.apply(element);
+            } catch (StaleElementReferenceException e) {
+                elementCache().staleDetected();
+            } catch (ElementNotInteractableException e) {
+                // fall through to a normal wait
+            }
+        }
+        element = resolver.get();
+        elementCache().put(locator, element);
+        return action.apply(element);
+    }
+
+    private void useElement(By locator, Supplier<WebElement> resolver, Predicate<WebElement> ready,
+                            Consumer<WebElement> action) {
+        withElement(locator, resolver, ready, element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+//    Fills a form in one go: text for inputs and textareas, the visible option text for selects and
+//    true/false for checkboxes (true for the radio button to pick). The FillMode comes from -Dform.fill.
+    public void fillForm(Map<By, ?> values) {
+        fillForm(values, FillMode.fromSystemProperty());
+    }
+
+//    Fields the script cannot locate, or finds hidden or disabled, are filled one by one through WebDriver,
+//    which also gives them the usual waits and error messages.
+    @SuppressWarnings("unchecked")
+    public void fillForm(Map<By, ?> values, FillMode mode) {
+        Map<By, Object> remaining = new LinkedHashMap<>(values);
+        if (mode == FillMode.SCRIPT) {
+            List<By> translatable = new ArrayList<>();
+            List<List<Object>> fields = new ArrayList<>();
+            values.forEach((locator, value) -> {
+                List<String> jsLocator = JsLocators.toJs(locator);
+                if (jsLocator != null && (value instanceof String || value instanceof Boolean)) {
+                    translatable.add(locator);
+                    fields.add(List.of(jsLocator, value));
+                }
+            });
+            if (!translatable.isEmpty()) {
+                List<String> statuses = (List<String>) ((JavascriptExecutor) driver).executeScript(FILL_FORM_SCRIPT, fields);
+                for (int i = 0; i < translatable.size(); i++) {
+                    if ("ok".equals(statuses.get(i)))
+                        remaining.remove(translatable.get(i));
+                }
+            }
+        }
+        remaining.forEach(this::fillField);
+    }
+
+    private void fillField(By locator, Object value) {
+        WebElement element = getElement(locator);
+        String type = element.getDomProperty("type");
+        if ("select".equalsIgnoreCase(element.getTagName())) {
+            selectByVisibleText(locator, String.valueOf(value));
+        } else if ("checkbox".equals(type) || "radio".equals(type)) {
+            if (element.isSelected() != Boolean.parseBoolean(String.valueOf(value)))
+                click(locator);
+        } else {
+            sendKeys(locator, String.valueOf(value));
+        }
+    }
+
+//    Bulk versions of the reads above. Everything that can be located from JavaScript is read with a single
+//    script call; other locators, and elements that are missing or hidden, go through the normal
+//    per-element methods (and their waits). BatchReadStats counts the commands saved.
+    public Map<By, String> getTexts(List<By> locators) {
+        return batchRead(locators, "text", null, 3, value -> (String) value.getFirst(), this::getText);
+    }
+
+    public Map<By, String> getAttributes(List<By> locators, String attribute) {
+        return batchRead(locators, "attribute", attribute, 2, value -> (String) value.getFirst(),
+                locator -> getElement(locator).getDomAttribute(attribute));
+    }
+
+    public Map<By, ElementState> getStates(List<By> locators) {
+        return batchRead(locators, "state", null, 4,
+                value -> new ElementState(true, (Boolean) value.get(0), (Boolean) value.get(1), (Boolean) value.get(2)),
+                locator -> {
+                    List<WebElement> elements = driver.findElements(locator);
+                    return elements.isEmpty() ? ElementState.ABSENT : ElementState.of(elements.getFirst());
+                });
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> Map<By, T> batchRead(List<By> locators, String mode, String attribute, int commandsPerElement,
+                                     Function<List<Object>, T> converter, Function<By, T> fallback) {
+        Map<By, T> results = new LinkedHashMap<>();
+        List<By> translatable = new ArrayList<>();
+        List<List<String>> jsLocators = new ArrayList<>();
+        for (By locator : locators) {
+            List<String> jsLocator = JsLocators.toJs(locator);
+            if (jsLocator != null) {
+                translatable.add(locator);
+                jsLocators.add(jsLocator);
+            }
+        }
+        int batched = 0;
+        if (!translatable.isEmpty()) {
+            List<Object> values = (List<Object>) ((JavascriptExecutor) driver)
+                    .executeScript(BATCH_READ_SCRIPT, jsLocators, mode, attribute);
+            for (int i = 0; i < translatable.size(); i++) {
+                if (values.get(i) != null) {
+                    results.put(translatable.get(i), converter.apply((List<Object>) values.get(i)));
+                    batched++;
+                }
+            }
+        }
+        int fallbacks = 0;
+        for (By locator : locators) {
+            if (!results.containsKey(locator)) {
+                results.put(locator, fallback.apply(locator));
+                fallbacks++;
+            }
+        }
+        BatchReadStats.record(!translatable.isEmpty(), batched, fallbacks, commandsPerElement);
+        // keep the caller's order
+        Map<By, T> ordered = new LinkedHashMap<>();
+        locators.forEach(locator -> ordered.put(locator, results.get(locator)));
+        return ordered;
+    }
 }
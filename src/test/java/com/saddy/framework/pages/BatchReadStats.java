@@ -0,0 +1,48 @@
+package com.saddy.framework.pages;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the bulk reads of {@link BasePage}: how many script calls were made, how many locators
+ * still needed per-element commands, and how many WebDriver commands were saved against reading every
+ * locator one by one.
+ */
+public final class BatchReadStats {
+    private static final LongAdder SCRIPT_CALLS = new LongAdder();
+    private static final LongAdder BATCHED_READS = new LongAdder();
+    private static final LongAdder FALLBACK_READS = new LongAdder();
+    private static final LongAdder COMMANDS_SAVED = new LongAdder();
+
+    private BatchReadStats() {
+    }
+
+    static void record(boolean scriptCalled, int batched, int fallbacks, int commandsPerElement) {
+        if (scriptCalled) {
+            SCRIPT_CALLS.increment();
+        }
+        BATCHED_READS.add(batched);
+        FALLBACK_READS.add(fallbacks);
+        COMMANDS_SAVED.add((long) batched * commandsPerElement - (scriptCalled ? 1 : 0));
+    }
+
+    public static long getScriptCalls() {
+        return SCRIPT_CALLS.sum();
+    }
+
+    public static long getBatchedReads() {
+        return BATCHED_READS.sum();
+    }
+
+    public static long getFallbackReads() {
+        return FALLBACK_READS.sum();
+    }
+
+    public static long getCommandsSaved() {
+        return COMMANDS_SAVED.sum();
+    }
+
+    public static String summary() {
+        return "script calls: %d, locators read in batch: %d, per-element fallbacks: %d, commands saved: %d"
+                .formatted(getScriptCalls(), getBatchedReads(), getFallbackReads(), getCommandsSaved());
+    }
+}
@@ -0,0 +1,171 @@
+package com.saddy.framework.pages;
+
+import com.saddy.framework.driver.NavigationListener;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per page object cache of resolved elements, keyed by locator.
+ * <p>
+ * On first use every {@code By} field declared by the page class (and its parents below {@link BasePage})
+ * is resolved in a single script call. Later actions on the same locator reuse the element. A navigation or
+ * window switch seen by {@link NavigationListener} drops the whole cache before the next lookup. DOM changes made
+ * by the page's own scripts cannot be seen without asking the browser, so those are caught when an element
+ * turns out to be stale: the cache is then dropped the same way. Hits, misses and re-resolves are counted per
+ * page class.
+ */
+public class ElementCache {
+    private static final String RESOLVE_SCRIPT = JsLocators.FIND_FUNCTION + """
+            return arguments[0].map(function (locator) { return findElement(locator); });
+            """;
+    private static final Map<Class<?>, List<Field>> LOCATOR_FIELDS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Metrics> METRICS = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final BasePage page;
+    private final Metrics metrics;
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private boolean resolved;
+    private long generation;
+
+    ElementCache(WebDriver driver, BasePage page) {
+        this.driver = driver;
+        this.page = page;
+        this.metrics = METRICS.computeIfAbsent(page.getClass(), type -> new Metrics());
+    }
+
+    /**
+     * The cached element for the locator, or null when it has to be looked up through WebDriver.
+     */
+    WebElement get(By locator) {
+        long current = NavigationListener.generation(driver);
+        if (current != generation) {
+            generation = current;
+            invalidate();
+        }
+        if (!resolved) {
+            resolveDeclaredLocators();
+        }
+        WebElement element = elements.get(locator);
+        if (element == null) {
+            metrics.misses.increment();
+        } else {
+            metrics.hits.increment();
+        }
+        return element;
+    }
+
+    void put(By locator, WebElement element) {
+        elements.put(locator, element);
+    }
+
+    /**
+     * Called when a cached element went stale: the page was re-rendered or navigated, so nothing cached is
+     * trusted any more.
+     */
+    void staleDetected() {
+        metrics.reResolves.increment();
+        invalidate();
+    }
+
+    public void invalidate() {
+        elements.clear();
+        resolved = false;
+    }
+
+    public static CacheMetrics metricsFor(Class<? extends BasePage> pageClass) {
+        Metrics metrics = METRICS.get(pageClass);
+        return metrics == null ? new CacheMetrics(0, 0, 0, 0) : metrics.snapshot();
+    }
+
+    public static Map<Class<?>, CacheMetrics> allMetrics() {
+        Map<Class<?>, CacheMetrics> result = new HashMap<>();
+        METRICS.forEach((type, metrics) -> result.put(type, metrics.snapshot()));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resolveDeclaredLocators() {
+        resolved = true;
+        List<By> locators = new ArrayList<>();
+        List<List<String>> jsLocators = new ArrayList<>();
+        for (By locator : declaredLocators()) {
+            List<String> jsLocator = JsLocators.toJs(locator);
+            if (jsLocator != null) {
+                locators.add(locator);
+                jsLocators.add(jsLocator);
+            }
+        }
+        if (locators.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> found = (List<Object>) ((JavascriptExecutor) driver).executeScript(RESOLVE_SCRIPT, jsLocators);
+            metrics.bulkResolves.increment();
+            for (int i = 0; i < locators.size(); i++) {
+                if (found.get(i) instanceof WebElement element) {
+                    elements.put(locators.get(i), element);
+                }
+            }
+        } catch (WebDriverException e) {
+            // the page is not ready for scripts yet; fall back to resolving one locator at a time
+        }
+    }
+
+    private List<By> declaredLocators() {
+        List<By> locators = new ArrayList<>();
+        for (Field field : LOCATOR_FIELDS.computeIfAbsent(page.getClass(), ElementCache::locatorFields)) {
+            try {
+                if (field.get(page) instanceof By locator) {
+                    locators.add(locator);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read locator " + field, e);
+            }
+        }
+        return locators;
+    }
+
+    private static List<Field> locatorFields(Class<?> pageClass) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != BasePage.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (By.class.isAssignableFrom(field.getType()) && !Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    public record CacheMetrics(long hits, long misses, long reResolves, long bulkResolves) {
+        @Override
+        public String toString() {
+            return "hits: %d, misses: %d, re-resolves: %d, bulk resolves: %d".formatted(hits, misses, reResolves, bulkResolves);
+        }
+    }
+
+    private static class Metrics {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder reResolves = new LongAdder();
+        final LongAdder bulkResolves = new LongAdder();
+
+        CacheMetrics snapshot() {
+            return new CacheMetrics(hits.sum(), misses.sum(), reResolves.sum(), bulkResolves.sum());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.saddy.framework.pages;
+
+import org.openqa.selenium.WebElement;
+
+/**
+ * Snapshot of the state checks tests usually make on an element, read in one go.
+ */
+public record ElementState(boolean present, boolean displayed, boolean enabled, boolean selected) {
+    public static final ElementState ABSENT = new ElementState(false, false, false, false);
+
+    static ElementState of(WebElement element) {
+        return new ElementState(true, element.isDisplayed(), element.isEnabled(), element.isSelected());
+    }
+}
@@ -0,0 +1,18 @@
+package com.saddy.framework.pages;
+
+/**
+ * How {@link BasePage#fillForm} puts values into a form.
+ * <ul>
+ *     <li>{@code SCRIPT} - all fields in one executeScript call, firing the input/change events a user would</li>
+ *     <li>{@code KEYSTROKES} - field by field through WebDriver, for tests that exercise key handling</li>
+ * </ul>
+ * The default is {@code SCRIPT}; {@code -Dform.fill=keystrokes} switches the whole run to real keystrokes.
+ */
+public enum FillMode {
+    SCRIPT,
+    KEYSTROKES;
+
+    public static FillMode fromSystemProperty() {
+        return valueOf(System.getProperty("form.fill", "script").trim().toUpperCase());
+    }
+}
@@ -0,0 +1,43 @@
+package com.saddy.framework.pages;
+
+import org.openqa.selenium.By;
+
+import java.util.List;
+
+/**
+ * Translates {@link By} locators into something a script running in the page can resolve. Only css selectors
+ * and xpath are supported; {@code By.id}, {@code By.name}, {@code By.className} and {@code By.tagName}
+ * already travel as css selectors. Link text locators are not translatable and stay on WebDriver commands.
+ */
+final class JsLocators {
+    static final String FIND_FUNCTION = """
+            function findElement(locator) {
+                if (locator[0] === 'xpath') {
+                    return document.evaluate(locator[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+                }
+                return document.querySelector(locator[1]);
+            }
+            function isVisible(element) {
+                var style = window.getComputedStyle(element);
+                return style.visibility !== 'hidden' && style.display !== 'none' && element.getClientRects().length > 0;
+            }
+            """;
+
+    private JsLocators() {
+    }
+
+    /**
+     * Returns {@code [strategy, value]} for the script, or null when the locator can only be used through WebDriver.
+     */
+    static List<String> toJs(By locator) {
+        if (!(locator instanceof By.Remotable remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+        return switch (parameters.using()) {
+            case "css selector", "xpath" -> List.of(parameters.using(), String.valueOf(parameters.value()));
+            case "tag name" -> List.of("css selector", String.valueOf(parameters.value()));
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.saddy.framework.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Event driven alternative to a polling {@code WebDriverWait}. A single async script checks the condition,
+ * and if it does not hold yet it watches the DOM with a MutationObserver and answers as soon as a mutation
+ * makes it true. There is no poll interval to lose after the element shows up, and the whole wait is one
+ * command instead of one per poll.
+ * <p>
+ * Waits longer than {@link #SLICE} are split into several scripts so the session's script timeout
+ * (30 s by default) is never hit. A navigation in the middle of a wait aborts the script; the wait then
+ * starts again on the new document.
+ * <p>
+ * The implicit wait is left alone: the element lookups happen inside the script, and the implicit wait
+ * only applies to {@code findElement} commands, so it never adds to these waits.
+ */
+public class MutationWait {
+    static final Duration SLICE = Duration.ofSeconds(25);
+
+    // What chromedriver and geckodriver report when the page unloads under an async script
+    private static final String DOCUMENT_UNLOADED = "document unloaded while waiting for result";
+    private static final String FIREFOX_DOCUMENT_UNLOADED = "document was unloaded";
+    private static final String TARGET_NAVIGATED = "Inspected target navigated or closed";
+
+    private static final String WAIT_SCRIPT = JsLocators.FIND_FUNCTION + """
+            var locator = arguments[0], condition = arguments[1], expected = arguments[2], timeout = arguments[3];
+            var done = arguments[arguments.length - 1];
+            function check() {
+                var element = findElement(locator);
+                if (!element) return null;
+                if (condition === 'presence') return element;
+                if (!isVisible(element)) return null;
+                if (condition === 'visibility') return element;
+                if (condition === 'clickable') return element.disabled ? null : element;
+                return (element.innerText || element.value || '').indexOf(expected) >= 0 ? element : null;
+            }
+            var found = check();
+            if (found) { done(found); return; }
+            var finished = false, timer;
+            var observer = new MutationObserver(function () {
+                if (finished) return;
+                var element = check();
+                if (element) {
+                    finished = true;
+                    observer.disconnect();
+                    clearTimeout(timer);
+                    done(element);
+                }
+            });
+            observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});
+            timer = setTimeout(function () { finished = true; observer.disconnect(); done(null); }, timeout);
+            """;
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public MutationWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    /**
+     * True when the locator can be watched from JavaScript; the others need a normal WebDriverWait.
+     */
+    public static boolean supports(By locator) {
+        return JsLocators.toJs(locator) != null;
+    }
+
+    public WebElement presenceOf(By locator) {
+        return await(locator, "presence", null);
+    }
+
+    public WebElement visibilityOf(By locator) {
+        return await(locator, "visibility", null);
+    }
+
+    public WebElement clickable(By locator) {
+        return await(locator, "clickable", null);
+    }
+
+    public WebElement textPresent(By locator, String text) {
+        return await(locator, "text", text);
+    }
+
+    private WebElement await(By locator, String condition, String expected) {
+        List<String> jsLocator = JsLocators.toJs(locator);
+        if (jsLocator == null) {
+            throw new IllegalArgumentException("Locator cannot be watched from JavaScript: " + locator);
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            long slice = Math.min(Duration.ofNanos(remaining).toMillis(), SLICE.toMillis());
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT, jsLocator, condition, expected, slice);
+                if (result instanceof WebElement element) {
+                    return element;
+                }
+            } catch (ScriptTimeoutException e) {
+                // the script outlived the session's script timeout; try again with what is left
+            } catch (JavascriptException | StaleElementReferenceException e) {
+                // the document was replaced while waiting; anything else, such as a bad XPath, is a real error
+                if (!isNavigationAbort(e)) {
+                    throw e;
+                }
+            } catch (WebDriverException e) {
+                if (!String.valueOf(e.getMessage()).contains(TARGET_NAVIGATED)) {
+                    throw e;
+                }
+            }
+        }
+        throw new TimeoutException("Expected condition failed: waiting for %s of %s%s (tried for %d second(s) with a MutationObserver)"
+                .formatted(condition, locator, expected == null ? "" : " to contain '" + expected + "'", timeout.toSeconds()));
+    }
+
+    private static boolean isNavigationAbort(WebDriverException e) {
+        if (e instanceof StaleElementReferenceException) {
+            // the element was found just before the page went away
+            return true;
+        }
+        String message = String.valueOf(e.getMessage()).toLowerCase();
+        return message.contains(DOCUMENT_UNLOADED) || message.contains(FIREFOX_DOCUMENT_UNLOADED);
+    }
+}
@@ -0,0 +1,149 @@
+package com.saddy.framework.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks every page of a paginated table lazily, one {@link TableSnapshot} per page.
+ * <p>
+ * As soon as a page has been read the next page button is clicked, so the browser renders the next page while
+ * the caller is still working through the rows already in memory. Only the current page is held, and a caller
+ * that stops early (e.g. {@code stream().filter(...).findFirst()}) never reads the remaining pages.
+ * <p>
+ * A page that does not change within {@code table.pageTimeout} seconds (10) after clicking next is taken as
+ * the last one, for tables that leave the button enabled there.
+ */
+public class PaginatedTable extends BasePage {
+    public static final By DEFAULT_NEXT_PAGE =
+            By.xpath("//button[normalize-space()='Next' or @aria-label='Next page' or @id='next-page']");
+//    First row and row count: paging changes the first, a new page size the second
+    private static final String PAGE_SIGNATURE_SCRIPT = """
+            var table = arguments[0];
+            var body = table.tBodies.length ? table.tBodies[0] : table;
+            return body.rows.length ? body.rows[0].innerText + '|' + body.rows.length : null;
+            """;
+
+    private static final Duration PAGE_TIMEOUT = Duration.ofSeconds(Integer.getInteger("table.pageTimeout", 10));
+
+    private final By table;
+    private final By nextPage;
+    private final WebTable webTable;
+
+    public PaginatedTable(WebDriver driver, By table) {
+        this(driver, table, DEFAULT_NEXT_PAGE);
+    }
+
+    public PaginatedTable(WebDriver driver, By table, By nextPage) {
+        super(driver);
+        this.table = table;
+        this.nextPage = nextPage;
+        this.webTable = new WebTable(driver, table);
+    }
+
+//    Fewer, bigger pages mean fewer round trips, e.g. rowsPerPage(By.id("rows-per-page"), "50")
+    public PaginatedTable rowsPerPage(By selector, String rows) {
+        String signature = pageSignature();
+        selectByVisibleText(selector, rows);
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(2)).until(d -> !Objects.equals(pageSignature(), signature));
+        } catch (TimeoutException e) {
+            // the whole table already fitted on the page
+        }
+        return this;
+    }
+
+    public Iterator<TableRow> iterator() {
+        return new PageIterator();
+    }
+
+    public Stream<TableRow> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public Optional<TableRow> findFirst(String column, String value) {
+        return stream().filter(row -> value.equals(row.get(column))).findFirst();
+    }
+
+    private class PageIterator implements Iterator<TableRow> {
+        private Iterator<TableRow> page = List.<TableRow>of().iterator();
+        private String previousSignature;
+        private boolean started;
+        private boolean nextRequested;
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext()) {
+                if (started && !nextRequested) {
+                    return false;
+                }
+                if (started && !awaitChangeFrom(previousSignature)) {
+                    nextRequested = false;
+                    return false;
+                }
+                started = true;
+                previousSignature = pageSignature();
+                TableSnapshot snapshot = webTable.snapshot();
+                nextRequested = requestNextPage();
+                page = snapshot.rows().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public TableRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
+
+    // Clicks the next page button unless it is missing or disabled, which means this was the last page.
+    private boolean requestNextPage() {
+        List<WebElement> buttons = driver.findElements(nextPage);
+        if (buttons.isEmpty()) {
+            return false;
+        }
+        WebElement button = buttons.getFirst();
+        String classes = Objects.toString(button.getDomAttribute("class"), "");
+        if (!button.isDisplayed() || !button.isEnabled() || "true".equals(button.getDomAttribute("aria-disabled"))
+                || classes.contains("disabled")) {
+            return false;
+        }
+        button.click();
+        return true;
+    }
+
+    // Looked up fresh on every poll because the table may be re-rendered while paging
+    private String pageSignature() {
+        return (String) ((JavascriptExecutor) driver).executeScript(PAGE_SIGNATURE_SCRIPT, driver.findElement(table));
+    }
+
+    // A local wait: ignoring stale elements on the page's shared wait would change every later wait of the page
+    private boolean awaitChangeFrom(String signature) {
+        try {
+            new WebDriverWait(driver, PAGE_TIMEOUT).ignoring(StaleElementReferenceException.class)
+                    .until(d -> !Objects.equals(pageSignature(), signature));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+}
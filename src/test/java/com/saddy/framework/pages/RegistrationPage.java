@@ -1,11 +1,20 @@
 package com.saddy.framework.pages;
 
+import com.saddy.framework.driver.ImplicitWait;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
 import org.testng.Assert;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class RegistrationPage extends BasePage {
+    private static final Logger logger = LogManager.getLogger(RegistrationPage.class);
+
     private By firstName = By.xpath("//input[@id='firstName']");
     private By email = By.xpath("//input[@id='email']");
     private By country = By.xpath("//select[@id='country']");
@@ -17,6 +26,28 @@ public class RegistrationPage extends BasePage {
         super(driver);
     }
 
+//    Checks without waiting whether the registration form is showing, e.g. after restoring a cached login
+    public boolean isLoaded() {
+        return ImplicitWait.suspended(driver, () -> driver.findElements(firstName).stream().anyMatch(WebElement::isDisplayed));
+    }
+
+//    Fills the whole registration form with one script call; -Dform.fill=keystrokes types it instead
+    public void fillForm(String fName, String emailId, String countryToSelect, String gender, boolean testing) {
+        fillForm(fName, emailId, countryToSelect, gender, testing, FillMode.fromSystemProperty());
+    }
+
+    public void fillForm(String fName, String emailId, String countryToSelect, String gender, boolean testing,
+                         FillMode mode) {
+        Map<By, Object> values = new LinkedHashMap<>();
+        values.put(firstName, fName);
+        values.put(email, emailId);
+        values.put(country, countryToSelect);
+        values.put(genderRadio(gender), true);
+        if (testing)
+            values.put(testingCB, true);
+        fillForm(values, mode);
+    }
+
     public void enterFirstName(String fName) {
         sendKeys(firstName, fName);
     }
@@ -45,6 +76,14 @@ public class RegistrationPage extends BasePage {
         }
     }
 
+    private By genderRadio(String gender) {
+        if (gender.equalsIgnoreCase("female"))
+            return femaleRB;
+        if (!gender.equalsIgnoreCase("male"))
+            logger.warn("There is no such cases {} matched! Hence selecting male!", gender);
+        return maleRB;
+    }
+
     private void selectMale() {
         click(maleRB);
     }
@@ -53,6 +92,27 @@ public class RegistrationPage extends BasePage {
         click(femaleRB);
     }
 
+//    Read-backs of what the form currently holds
+    public String getFirstName() {
+        return getElement(firstName).getDomProperty("value");
+    }
+
+    public String getEmailID() {
+        return getElement(email).getDomProperty("value");
+    }
+
+    public String getSelectedCountry() {
+        return new Select(getElement(country)).getFirstSelectedOption().getText().trim();
+    }
+
+    public boolean isGenderSelected(String gender) {
+        return getElement(genderRadio(gender)).isSelected();
+    }
+
+    public boolean isTestingSelected() {
+        return getElement(testingCB).isSelected();
+    }
+
     public void selectTesting() {
         WebElement checkBox = getElement(testingCB);
         if (!checkBox.isSelected())
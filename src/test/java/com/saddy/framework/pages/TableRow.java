@@ -0,0 +1,44 @@
+package com.saddy.framework.pages;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One body row of a {@link TableSnapshot}. Cells can be read by position or by column name.
+ */
+public final class TableRow {
+    private final TableSnapshot table;
+    private final List<String> cells;
+
+    TableRow(TableSnapshot table, List<String> cells) {
+        this.table = table;
+        this.cells = List.copyOf(cells);
+    }
+
+    public String get(int column) {
+        return column < cells.size() ? cells.get(column) : null;
+    }
+
+    public String get(String column) {
+        return get(table.columnIndex(column));
+    }
+
+    public List<String> cells() {
+        return cells;
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> headers = table.headers();
+        for (int i = 0; i < headers.size(); i++) {
+            values.put(headers.get(i), get(i));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return cells.toString();
+    }
+}
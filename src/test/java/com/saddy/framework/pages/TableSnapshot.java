@@ -0,0 +1,105 @@
+package com.saddy.framework.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Rows of a table at the moment it was read, with column lookup by name and an optional hash index on a
+ * key column.
+ * <p>
+ * Column names are matched ignoring case, spaces and punctuation, so {@code "containerId"} finds a
+ * {@code "Container ID"} header.
+ */
+public final class TableSnapshot {
+    private final List<String> headers;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final List<TableRow> rows;
+    private final String keyColumn;
+    private final Map<String, TableRow> keyIndex;
+
+    public TableSnapshot(List<String> headers, List<List<String>> rows, String keyColumn) {
+        this.headers = List.copyOf(headers);
+        for (int i = 0; i < this.headers.size(); i++) {
+            columns.putIfAbsent(normalize(this.headers.get(i)), i);
+        }
+        List<TableRow> tableRows = new ArrayList<>(rows.size());
+        rows.forEach(cells -> tableRows.add(new TableRow(this, cells)));
+        this.rows = Collections.unmodifiableList(tableRows);
+        this.keyColumn = keyColumn;
+        this.keyIndex = keyColumn == null ? Map.of() : index(keyColumn);
+    }
+
+    public List<String> headers() {
+        return headers;
+    }
+
+    public List<TableRow> rows() {
+        return rows;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public boolean hasColumn(String column) {
+        return columns.containsKey(normalize(column));
+    }
+
+    public int columnIndex(String column) {
+        Integer index = columns.get(normalize(column));
+        if (index == null) {
+            throw new IllegalArgumentException("No column '%s' in %s".formatted(column, headers));
+        }
+        return index;
+    }
+
+    /**
+     * The row whose key column holds the given value. Requires a key column to have been given.
+     */
+    public Optional<TableRow> byKey(String key) {
+        if (keyColumn == null) {
+            throw new IllegalStateException("The snapshot was taken without a key column");
+        }
+        return Optional.ofNullable(keyIndex.get(key));
+    }
+
+    public List<TableRow> where(String column, String value) {
+        int index = columnIndex(column);
+        return where(row -> value.equals(row.get(index)));
+    }
+
+    public List<TableRow> where(Predicate<TableRow> condition) {
+        List<TableRow> matches = new ArrayList<>();
+        for (TableRow row : rows) {
+            if (condition.test(row)) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+
+    public List<String> column(String column) {
+        int index = columnIndex(column);
+        List<String> values = new ArrayList<>(rows.size());
+        rows.forEach(row -> values.add(row.get(index)));
+        return values;
+    }
+
+    private Map<String, TableRow> index(String column) {
+        int index = columnIndex(column);
+        Map<String, TableRow> byKey = new HashMap<>(rows.size() * 2);
+        for (TableRow row : rows) {
+            byKey.putIfAbsent(row.get(index), row);
+        }
+        return byKey;
+    }
+
+    static String normalize(String column) {
+        return column.replaceAll("[^A-Za-z0-9]", "").toLowerCase();
+    }
+}
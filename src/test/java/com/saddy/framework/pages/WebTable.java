@@ -0,0 +1,58 @@
+package com.saddy.framework.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML table read in one script call. The header and every body row come back as text and are turned into
+ * a {@link TableSnapshot}, so lookups by column name or key run in memory instead of one findElement per cell.
+ */
+public class WebTable extends BasePage {
+    private static final String SNAPSHOT_SCRIPT = """
+            var table = arguments[0];
+            function texts(row) {
+                return Array.prototype.map.call(row.cells, function (cell) { return cell.innerText.trim(); });
+            }
+            var headerRow = table.tHead && table.tHead.rows.length ? table.tHead.rows[table.tHead.rows.length - 1] : null;
+            var rows = [];
+            var bodies = table.tBodies.length ? table.tBodies : [table];
+            Array.prototype.forEach.call(bodies, function (body) {
+                Array.prototype.forEach.call(body.rows, function (row) {
+                    if (row.parentNode.tagName === 'THEAD' || row.parentNode.tagName === 'TFOOT') return;
+                    if (!headerRow && row.querySelector('th') && !row.querySelector('td')) { headerRow = row; return; }
+                    rows.push(texts(row));
+                });
+            });
+            return {headers: headerRow ? texts(headerRow) : [], rows: rows};
+            """;
+
+    private final By table;
+
+    public WebTable(WebDriver driver, By table) {
+        super(driver);
+        this.table = table;
+    }
+
+    public TableSnapshot snapshot() {
+        return snapshot(null);
+    }
+
+//    keyColumn gets a hash index, e.g. "containerId" for lookups by container
+    @SuppressWarnings("unchecked")
+    public TableSnapshot snapshot(String keyColumn) {
+        Map<String, Object> result;
+        try {
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, getElement(table));
+        } catch (StaleElementReferenceException e) {
+            // the table was re-rendered since it was cached, e.g. after paging
+            elementCache().staleDetected();
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, getElement(table));
+        }
+        return new TableSnapshot((List<String>) result.get("headers"), (List<List<String>>) result.get("rows"), keyColumn);
+    }
+}
@@ -0,0 +1,219 @@
+package com.saddy.framework.screenshots;
+
+import com.saddy.framework.driver.DriverRegistry;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.util.PropertiesUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes a screenshot when a test fails without keeping the test thread busy.
+ * <p>
+ * The test thread only asks the browser of its own session (found through {@link DriverRegistry}) for the PNG
+ * bytes and, once the executor has accepted the write, adds an Allure attachment for them. Hashing,
+ * recompressing and storing the image in the {@link ScreenshotStore} happen on a small bounded executor, and the
+ * attachment is linked to the stored blob in the results directory configured in {@code allure.properties}.
+ * When a burst of failures fills its queue further screenshots are dropped and counted rather than making
+ * tests wait.
+ * <p>
+ * Captures are named {@code <Class>.<method>[-<params>]-<time>-<n>} in the store index. Configuration (system
+ * properties): {@code screenshots.threads} (2) and {@code screenshots.queue} (32), plus the store settings.
+ */
+public final class FailureScreenshots {
+    private static final Logger logger = LogManager.getLogger(FailureScreenshots.class);
+    private static final String CAPTURED = FailureScreenshots.class.getName() + ".captured";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final Path ALLURE_RESULTS = Path.of(PropertiesUtils.loadAllureProperties()
+            .getProperty("allure.results.directory", "allure-results"));
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            Integer.getInteger("screenshots.threads", 2), Integer.getInteger("screenshots.threads", 2),
+            30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Integer.getInteger("screenshots.queue", 32)), task -> {
+        Thread thread = new Thread(task, "screenshot-writer-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final LongAdder CAPTURES = new LongAdder();
+    private static final LongAdder CAPTURE_NANOS = new LongAdder();
+    private static final LongAdder WRITTEN = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder FAILED = new LongAdder();
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitPending(10, TimeUnit.SECONDS), "screenshot-drain"));
+    }
+
+    private FailureScreenshots() {
+    }
+
+    /**
+     * Captures the current session for a failed test. Does nothing for passed tests, when no session is
+     * registered on this thread, or when the test was already captured.
+     */
+    public static void captureIfFailed(ITestResult result) {
+        if (!hasFailed(result) || result.getAttribute(CAPTURED) != null) {
+            return;
+        }
+        Optional<WebDriver> driver = DriverRegistry.current();
+        if (driver.isEmpty() || !(driver.get() instanceof TakesScreenshot camera)) {
+            logger.debug("No screenshot for {}: no browser session on {}", testName(result), Thread.currentThread().getName());
+            return;
+        }
+        result.setAttribute(CAPTURED, Boolean.TRUE);
+        if (EXECUTOR.getQueue().remainingCapacity() == 0) {
+            DROPPED.increment();
+            logger.warn("Screenshot queue is full, dropping the screenshot of {}", testName(result));
+            return;
+        }
+
+        long start = System.nanoTime();
+        byte[] png;
+        try {
+            png = camera.getScreenshotAs(OutputType.BYTES);
+        } catch (WebDriverException e) {
+            FAILED.increment();
+            logger.warn("Could not take a screenshot of {}: {}", testName(result), e.getMessage());
+            return;
+        }
+        CAPTURES.increment();
+        CAPTURE_NANOS.add(System.nanoTime() - start);
+
+        String fileName = fileName(result);
+        String attachment = Allure.getLifecycle().getCurrentTestCase().isPresent()
+                ? UUID.randomUUID() + "-attachment." + ScreenshotStore.getDefault().getFormat() : null;
+        try {
+            EXECUTOR.execute(() -> write(fileName, png, attachment));
+        } catch (RejectedExecutionException e) {
+            DROPPED.increment();
+            logger.warn("Screenshot queue is full, dropping the screenshot of {}", testName(result));
+            return;
+        }
+        if (attachment != null) {
+            addAllureAttachment(attachment);
+        }
+    }
+
+    /**
+     * Waits for the queued screenshots to be written, e.g. at the end of a suite.
+     */
+    public static boolean awaitPending(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (EXECUTOR.getActiveCount() > 0 || !EXECUTOR.getQueue().isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String report() {
+        long captures = CAPTURES.sum();
+        return "screenshots taken: %d (avg %d ms on the test thread), written: %d, dropped: %d, failed: %d"
+                .formatted(captures, captures == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(CAPTURE_NANOS.sum() / captures),
+                        WRITTEN.sum(), DROPPED.sum(), FAILED.sum());
+    }
+
+    // Registers the attachment on the test thread while Allure still has the test open; the file follows later.
+    private static void addAllureAttachment(String source) {
+        Attachment attachment = new Attachment().setName("Screenshot on failure").setType(mimeType()).setSource(source);
+        Allure.getLifecycle().updateTestCase(test -> test.getAttachments().add(attachment));
+    }
+
+    private static void write(String name, byte[] png, String attachment) {
+        try {
+            ScreenshotStore.Stored stored = ScreenshotStore.getDefault().store(name, png);
+            if (attachment != null) {
+                linkAttachment(attachment, stored.blob());
+            }
+            WRITTEN.increment();
+            logger.info("Screenshot of {} saved to {}{}", name, stored.blob(),
+                    stored.deduplicated() ? " (same as an earlier capture, " + stored.distance() + " bits apart)" : "");
+        } catch (IOException | RuntimeException e) {
+            FAILED.increment();
+            logger.warn("Could not store screenshot {}: {}", name, e.getMessage());
+            if (attachment != null) {
+                writeUnstored(attachment, png);
+            }
+        }
+    }
+
+    // The test result is usually written by now, so the attachment cannot be taken back: give it the raw capture instead
+    private static void writeUnstored(String attachment, byte[] png) {
+        try {
+            Files.createDirectories(ALLURE_RESULTS);
+            Files.write(ALLURE_RESULTS.resolve(attachment), png);
+        } catch (IOException e) {
+            logger.warn("Could not write the Allure attachment {}: {}", attachment, e.getMessage());
+        }
+    }
+
+    // Hard link into the Allure results so repeated pages are not copied once per test; a copy where links are not possible
+    private static void linkAttachment(String attachment, Path blob) throws IOException {
+        Files.createDirectories(ALLURE_RESULTS);
+        Path target = ALLURE_RESULTS.resolve(attachment);
+        try {
+            Files.createLink(target, blob);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Inside IHookable.run the status is not final yet, only the throwable is set
+    private static boolean hasFailed(ITestResult result) {
+        if (result.getStatus() == ITestResult.FAILURE) {
+            return true;
+        }
+        Throwable throwable = result.getThrowable();
+        return result.getStatus() != ITestResult.SKIP && throwable != null && !(throwable instanceof SkipException);
+    }
+
+    private static String mimeType() {
+        return ScreenshotStore.getDefault().getFormat().equals("png") ? "image/png" : "image/jpeg";
+    }
+
+    static String fileName(ITestResult result) {
+        String name = testName(result);
+        Object[] parameters = result.getParameters();
+        if (parameters != null && parameters.length > 0) {
+            name += "-" + Integer.toHexString(Arrays.toString(parameters).hashCode());
+        }
+        return name.replaceAll("[^\\w.-]+", "_") + "-" + LocalDateTime.now().format(TIME) + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    private static String testName(ITestResult result) {
+        return result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+    }
+}
@@ -0,0 +1,314 @@
+package com.saddy.framework.screenshots;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one file per visually distinct screenshot, however many tests capture it.
+ * <p>
+ * Each capture gets a 128 bit difference hash (brightness gradients of a 9x9 grey thumbnail). A capture of
+ * the same size whose hash differs from a stored one in at most {@code threshold} bits - the same error page
+ * with another timestamp or cursor position - reuses that blob; otherwise it is recompressed and stored as
+ * {@code blobs/<hash>-<width>x<height>.<format>}. {@code index.csv} maps every capture name to its blob.
+ * <p>
+ * The store is kept under {@code maxBytes} by deleting the least recently used blobs; a blob counts as used
+ * whenever a capture maps to it, also across runs through the file's modification time.
+ * Configuration of {@link #getDefault()} (system properties): {@code screenshots.store.dir}
+ * ({@code target/screenshots}), {@code screenshots.store.maxMb} (200), {@code screenshots.store.threshold} (6),
+ * {@code screenshots.format} ({@code jpg} or {@code png}), {@code screenshots.quality} (JPEG quality, 0.75) and
+ * {@code screenshots.pngLevel} (deflate level 0-9, 9).
+ */
+public final class ScreenshotStore {
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class);
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{32})-(\\d+)x(\\d+)\\.\\w+");
+
+    private final Path blobs;
+    private final Path index;
+    private final long maxBytes;
+    private final int threshold;
+    private final String format;
+    private final float quality;
+    private final Map<Path, Blob> stored = new HashMap<>();
+    private long storedBytes;
+    private final LongAdder captures = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder inputBytes = new LongAdder();
+
+    public ScreenshotStore(Path dir, long maxBytes, int threshold, String format, float quality) {
+        this.blobs = dir.resolve("blobs");
+        this.index = dir.resolve("index.csv");
+        this.maxBytes = maxBytes;
+        this.threshold = threshold;
+        this.format = format.equals("jpeg") ? "jpg" : format;
+        this.quality = quality;
+        load();
+    }
+
+    public static ScreenshotStore getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    private static final class Holder {
+        private static final ScreenshotStore DEFAULT = new ScreenshotStore(
+                Path.of(System.getProperty("screenshots.store.dir", "target/screenshots")),
+                Long.getLong("screenshots.store.maxMb", 200) * 1024 * 1024,
+                Integer.getInteger("screenshots.store.threshold", 6),
+                System.getProperty("screenshots.format", "jpg").toLowerCase(),
+                System.getProperty("screenshots.format", "jpg").equalsIgnoreCase("png")
+                        ? 1f - Integer.getInteger("screenshots.pngLevel", 9) / 9f
+                        : Float.parseFloat(System.getProperty("screenshots.quality", "0.75")));
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Stores a PNG capture under the given name, or maps the name to an existing blob that looks the same.
+     * The hashing and the recompression run outside the lock, so several writers can work at once.
+     */
+    public Stored store(String name, byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Screenshot " + name + " is not a readable image");
+        }
+        PerceptualHash hash = perceptualHash(image);
+        captures.increment();
+        inputBytes.add(png.length);
+
+        Stored existing = reuse(name, hash, image.getWidth(), image.getHeight());
+        if (existing != null) {
+            return existing;
+        }
+        byte[] encoded = encode(image);
+        synchronized (this) {
+            // Another writer may have stored the same page while this one was encoding
+            existing = reuse(name, hash, image.getWidth(), image.getHeight());
+            if (existing != null) {
+                return existing;
+            }
+            Files.createDirectories(blobs);
+            Path file = blobs.resolve("%s-%dx%d.%s".formatted(hash, image.getWidth(), image.getHeight(), format));
+            Files.write(file, encoded);
+            Blob blob = new Blob(file, hash, image.getWidth(), image.getHeight(), encoded.length, System.currentTimeMillis());
+            stored.put(file, blob);
+            storedBytes += encoded.length;
+            evictOverQuota(file);
+            link(name, blob, 0);
+            return new Stored(file, false, 0);
+        }
+    }
+
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public synchronized int getBlobCount() {
+        return stored.size();
+    }
+
+    public String report() {
+        return "screenshot store: %d captures (%d KB) kept as %d blobs (%d KB), %d deduplicated, %d evicted"
+                .formatted(captures.sum(), inputBytes.sum() / 1024, getBlobCount(), getStoredBytes() / 1024,
+                        deduplicated.sum(), evicted.sum());
+    }
+
+    /**
+     * Difference hash of a 9x9 grid of average brightness: 64 bits comparing horizontally adjacent cells and 64
+     * comparing vertically adjacent ones, so both the layout across and down the page count.
+     */
+    public static PerceptualHash perceptualHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        double[] sums = new double[9 * 9];
+        int[] counts = new int[9 * 9];
+        for (int y = 0; y < height; y++) {
+            int cellRow = y * 9 / height * 9;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[y * width + x];
+                int cell = cellRow + x * 9 / width;
+                sums[cell] += ((rgb >> 16) & 0xFF) * 0.299 + ((rgb >> 8) & 0xFF) * 0.587 + (rgb & 0xFF) * 0.114;
+                counts[cell]++;
+            }
+        }
+        for (int cell = 0; cell < sums.length; cell++) {
+            sums[cell] /= Math.max(1, counts[cell]);
+        }
+        long horizontal = 0;
+        long vertical = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                horizontal = horizontal << 1 | (sums[row * 9 + column] > sums[row * 9 + column + 1] ? 1 : 0);
+                vertical = vertical << 1 | (sums[row * 9 + column] > sums[(row + 1) * 9 + column] ? 1 : 0);
+            }
+        }
+        return new PerceptualHash(horizontal, vertical);
+    }
+
+    private synchronized Stored reuse(String name, PerceptualHash hash, int width, int height) throws IOException {
+        Blob best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Blob blob : stored.values()) {
+            if (blob.width != width || blob.height != height) {
+                continue;
+            }
+            int distance = blob.hash.distance(hash);
+            if (distance <= threshold && distance < bestDistance) {
+                best = blob;
+                bestDistance = distance;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.lastUsed = System.currentTimeMillis();
+        try {
+            Files.setLastModifiedTime(best.file, FileTime.fromMillis(best.lastUsed));
+        } catch (IOException e) {
+            logger.debug("Could not touch {}: {}", best.file, e.getMessage());
+        }
+        deduplicated.increment();
+        link(name, best, bestDistance);
+        return new Stored(best.file, true, bestDistance);
+    }
+
+    // Least recently used first, but never the blob that was just written
+    private void evictOverQuota(Path keep) throws IOException {
+        if (storedBytes <= maxBytes) {
+            return;
+        }
+        for (Blob blob : stored.values().stream().sorted(Comparator.comparingLong(b -> b.lastUsed)).toList()) {
+            if (storedBytes <= maxBytes) {
+                break;
+            }
+            if (blob.file.equals(keep)) {
+                continue;
+            }
+            Files.deleteIfExists(blob.file);
+            stored.remove(blob.file);
+            storedBytes -= blob.size;
+            evicted.increment();
+            logger.debug("Evicted screenshot blob {} to stay under {} MB", blob.file.getFileName(), maxBytes / 1024 / 1024);
+        }
+    }
+
+    private void link(String name, Blob blob, int distance) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(index, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write("%s,%s,%s,%d%n".formatted(Instant.now(), name.replace(',', '_'), blob.file.getFileName(), distance));
+        }
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        BufferedImage source = image;
+        if (format.equals("jpg") && image.getColorModel().hasAlpha()) {
+            // JPEG has no alpha channel
+            source = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            source.createGraphics().drawImage(image, 0, 0, null);
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(source, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Blobs from earlier runs count towards the quota and can be reused
+    private void load() {
+        if (!Files.isDirectory(blobs)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(blobs)) {
+            files.forEach(file -> {
+                Matcher matcher = BLOB_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    return;
+                }
+                try {
+                    Blob blob = new Blob(file, PerceptualHash.parse(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                            Integer.parseInt(matcher.group(3)), Files.size(file), Files.getLastModifiedTime(file).toMillis());
+                    stored.put(file, blob);
+                    storedBytes += blob.size;
+                } catch (IOException e) {
+                    logger.debug("Ignoring unreadable blob {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the screenshot store " + blobs, e);
+        }
+    }
+
+    /**
+     * Where a capture ended up: its own new blob, or a shared one {@code distance} bits away.
+     */
+    public record Stored(Path blob, boolean deduplicated, int distance) {
+    }
+
+    public record PerceptualHash(long horizontal, long vertical) {
+
+        public int distance(PerceptualHash other) {
+            return Long.bitCount(horizontal ^ other.horizontal) + Long.bitCount(vertical ^ other.vertical);
+        }
+
+        static PerceptualHash parse(String hex) {
+            return new PerceptualHash(Long.parseUnsignedLong(hex, 0, 16, 16), Long.parseUnsignedLong(hex, 16, 32, 16));
+        }
+
+        @Override
+        public String toString() {
+            return "%016x%016x".formatted(horizontal, vertical);
+        }
+    }
+
+    private static final class Blob {
+        private final Path file;
+        private final PerceptualHash hash;
+        private final int width;
+        private final int height;
+        private final long size;
+        private long lastUsed;
+
+        Blob(Path file, PerceptualHash hash, int width, int height, long size, long lastUsed) {
+            this.file = file;
+            this.hash = hash;
+            this.width = width;
+            this.height = height;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -1,25 +1,71 @@
 package com.saddy.framework.tests;
 
+import com.saddy.framework.auth.AuthStateCache;
+import com.saddy.framework.driver.BrowserCapacity;
+import com.saddy.framework.driver.DriverPool;
+import com.saddy.framework.driver.PooledDriver;
+import com.saddy.framework.pages.RegistrationPage;
+import com.saddy.listeners.DriverLifecycleListener;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
 
-import java.time.Duration;
-
+//    Profile selection, pre-warming and pool shutdown for the suite happen in DriverLifecycleListener
+@Listeners(DriverLifecycleListener.class)
 public class BaseTest {
+//    TestNG.xml runs methods in parallel on one instance of the class, so the session belongs to the thread
+//    running the test, not to the instance. @BeforeMethod, the test and @AfterMethod share that thread.
+    private static final ThreadLocal<PooledDriver> SESSION = new ThreadLocal<>();
+
+//    The session of the last setUp, for tests written against the field. It is only reliable while the methods
+//    of a class do not run in parallel on one instance; driver() always returns the current thread's session.
     protected WebDriver driver;
 
+//    Borrow an already running browser from the pool instead of launching a new ChromeDriver per test.
+//    The pool hands it over on the home page with a clean state. A BrowserCapacity permit is taken first, so
+//    these tests share the browser limit with the ScopedDriverTest ones.
     @BeforeMethod
     public void setUp() {
-        driver = new ChromeDriver();
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.get("https://panjatan.netlify.app/");
+        BrowserCapacity.acquire();
+        try {
+            PooledDriver session = DriverPool.forBrowser("chrome").acquire();
+            SESSION.set(session);
+            driver = session.getDriver();
+        } catch (RuntimeException e) {
+            BrowserCapacity.release();
+            throw e;
+        }
+    }
+
+    protected WebDriver driver() {
+        PooledDriver session = SESSION.get();
+        if (session == null) {
+            throw new IllegalStateException("No browser session on " + Thread.currentThread().getName() + ", was setUp() skipped?");
+        }
+        return session.getDriver();
+    }
+
+//    Logged-in registration page. The UI login only runs once per credential set, later tests restore
+//    its cookies and storage.
+    protected RegistrationPage loginAs(String userId, String pwd) {
+        return AuthStateCache.getInstance().loginAs(driver(), userId, pwd);
     }
 
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
     public void tearDown() {
-        driver.quit();
+        PooledDriver session = SESSION.get();
+        if (session == null) {
+            return;
+        }
+        SESSION.remove();
+        if (driver == session.getDriver()) {
+            driver = null;
+        }
+        try {
+            DriverPool.forBrowser("chrome").release(session);
+        } finally {
+            BrowserCapacity.release();
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.ExcelDataSource;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class ExcelDataSourceTest {
+
+    @Test
+    public void readsColumnsByHeaderName() {
+        List<Object[]> rows = new ArrayList<>();
+        ExcelDataSource.open(Path.of("data", "TestFile.xlsx"), "employee").rows("city", "NAME").forEachRemaining(rows::add);
+        Assert.assertEquals(rows.size(), 2);
+        Assert.assertEquals(rows.get(1), new Object[]{"Delhi", "Jhon"});
+
+        Map<String, String> first = ExcelDataSource.open(Path.of("data", "TestFile.xlsx"), "employee").maps().next();
+        Assert.assertEquals(first, Map.of("Name", "Alice", "Age", "20", "City", "Pune"));
+    }
+
+    @Test
+    public void unknownColumnFailsTheProvider() {
+        Iterator<Object[]> rows = ExcelDataSource.open(Path.of("data", "TestFile.xlsx"), "employee").rows("Salary");
+        Assert.assertThrows(IllegalArgumentException.class, rows::hasNext);
+    }
+
+    @Test
+    public void streamsLargeSheetsAndStopsEarly() throws IOException {
+        Path file = Files.createTempFile("large-", ".xlsx");
+        try {
+            try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file)) {
+                Sheet sheet = workbook.createSheet("data");
+                Row header = sheet.createRow(0);
+                header.createCell(0).setCellValue("id");
+                header.createCell(2).setCellValue("value");
+                for (int i = 1; i <= 100_000; i++) {
+                    Row row = sheet.createRow(i);
+                    row.createCell(0).setCellValue("ROW" + i);
+                    row.createCell(2).setCellValue(i);
+                }
+                workbook.write(out);
+            }
+            ExcelDataSource source = ExcelDataSource.open(file, "data");
+            long count = 0;
+            long sum = 0;
+            for (Iterator<Object[]> rows = source.rows("value"); rows.hasNext(); count++) {
+                sum += Long.parseLong((String) rows.next()[0]);
+            }
+            Assert.assertEquals(count, 100_000);
+            Assert.assertEquals(sum, 100_000L * 100_001 / 2);
+
+            try (ExcelDataSource.RowIterator<Object[]> rows = source.rows("id", "value")) {
+                Assert.assertEquals(rows.next(), new Object[]{"ROW1", "1"});
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
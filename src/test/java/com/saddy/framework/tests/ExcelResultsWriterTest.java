@@ -0,0 +1,59 @@
+package com.saddy.framework.tests;
+
+import com.saddy.enumdemo.TestStatus;
+import com.saddy.framework.data.ExcelDataSource;
+import com.saddy.framework.data.ExcelResultsWriter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+public class ExcelResultsWriterTest {
+
+//    Four threads appending 50k results through a 100 row window, read back with the streaming reader
+    @Test
+    public void writesResultsFromParallelThreads() throws Exception {
+        Path dir = Files.createTempDirectory("results-");
+        Path file = dir.resolve("suite-results.xlsx");
+        int results = 50_000;
+        try (ExcelResultsWriter writer = new ExcelResultsWriter(file, 100, 1_000)) {
+            // closing the executor waits for every append, before the writer is closed
+            try (ExecutorService workers = Executors.newFixedThreadPool(4)) {
+                IntStream.range(0, results).forEach(i -> workers.submit(() ->
+                        writer.append("LoginTests.login", "[user" + i + "]", i % 10 == 0 ? TestStatus.FAIL : TestStatus.PASS,
+                                i % 100, i % 10 == 0 ? "AssertionError: row " + i : null)));
+            }
+            Assert.assertEquals(writer.getResultCount(), results);
+        }
+
+        int rows = 0;
+        int failed = 0;
+        try (ExcelDataSource.RowIterator<Map<String, String>> read = ExcelDataSource.open(file, "results").maps()) {
+            while (read.hasNext()) {
+                Map<String, String> row = read.next();
+                rows++;
+                if (row.get("Status").equals("FAIL")) {
+                    failed++;
+                    Assert.assertTrue(row.get("Failure").startsWith("AssertionError"));
+                }
+            }
+        }
+        Assert.assertEquals(rows, results);
+        Assert.assertEquals(failed, results / 10);
+        try (var files = Files.list(dir)) {
+            Assert.assertEquals(files.count(), 1, "Partial file left behind");
+        }
+        deleteQuietly(dir, file);
+    }
+
+    private static void deleteQuietly(Path dir, Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+}
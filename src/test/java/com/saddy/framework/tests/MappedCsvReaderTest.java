@@ -0,0 +1,78 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.CsvRowReader;
+import com.saddy.framework.data.MappedCsvReader;
+import com.saddy.framework.data.ShipmentColumns;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+
+public class MappedCsvReaderTest {
+    private static final Path REPORT = Path.of("data", "shipment-report.csv");
+
+    @Test
+    public void columnsMatchTheRowReader() throws IOException {
+        try (ShipmentColumns columns = ShipmentColumns.load(REPORT); CsvRowReader rows = CsvRowReader.open(REPORT)) {
+            int row = 0;
+            while (rows.hasNext()) {
+                Map<String, String> expected = rows.next();
+                Assert.assertEquals(columns.containerId(row), expected.get("containerId"));
+                Assert.assertEquals(columns.status(row), expected.get("status"));
+                Assert.assertEquals(columns.getString(row, ShipmentColumns.Text.CONSIGNEE), expected.get("consignee"));
+                Assert.assertEquals(columns.weightKg(row), Long.parseLong(expected.get("weightKg")));
+                Assert.assertEquals(columns.volumeM3(row), Integer.parseInt(expected.get("volumeM3")));
+                Assert.assertEquals(columns.valueUsd(row), Long.parseLong(expected.get("valueUSD")));
+                Assert.assertEquals(columns.shipmentDate(row), LocalDate.parse(expected.get("shipmentDate")));
+                row++;
+            }
+            Assert.assertEquals(columns.size(), row);
+        }
+    }
+
+    @Test
+    public void quotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        Path file = Files.createTempFile("quoted-", ".csv");
+        try {
+            Files.writeString(file, "id,note,date\r\n\"1\",\"a, \"\"b\"\"\nc\",\"2000-02-29\"\r\n2,,1969-12-31\n");
+            try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.getLong(0), 1);
+                Assert.assertEquals(reader.getString(1), "a, \"b\"\nc");
+                Assert.assertEquals(reader.getEpochDay(2), LocalDate.of(2000, 2, 29).toEpochDay());
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.getString(1), "");
+                Assert.assertTrue(reader.fieldEquals(0, "2".getBytes(StandardCharsets.UTF_8)));
+                Assert.assertEquals(reader.getEpochDay(2), -1);
+                Assert.assertFalse(reader.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void trailingCommaAtEndOfFileAndLongBounds() throws IOException {
+        Path file = Files.createTempFile("edges-", ".csv");
+        try {
+            Files.writeString(file, "a,b\n-9223372036854775808,9223372036854775808\n7,");
+            try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.getLong(0), Long.MIN_VALUE);
+                Assert.assertThrows(NumberFormatException.class, () -> reader.getLong(1));
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.fieldCount(), 2);
+                Assert.assertEquals(reader.getLong(0), 7);
+                Assert.assertEquals(reader.getString(1), "");
+                Assert.assertFalse(reader.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
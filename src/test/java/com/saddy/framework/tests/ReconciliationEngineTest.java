@@ -0,0 +1,80 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.CsvRowReader;
+import com.saddy.framework.data.ReconciliationEngine;
+import com.saddy.framework.data.ReconciliationReport;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class ReconciliationEngineTest {
+
+    @Test
+    public void exportMatchesItself() throws IOException {
+        Path csv = Path.of("data", "shipment-report.csv");
+        try (CsvRowReader expected = CsvRowReader.open(csv); CsvRowReader actual = CsvRowReader.open(csv)) {
+            ReconciliationReport report = new ReconciliationEngine("containerId", List.of()).reconcile(expected, actual);
+            Assert.assertTrue(report.isClean(), report.toString());
+            Assert.assertEquals(report.matchedRows(), 50);
+            Assert.assertEquals(report.peakPending(), 1);
+        }
+    }
+
+    @Test
+    public void reportsMissingExtraAndMismatchedCells() {
+        List<Map<String, String>> ui = List.of(
+                Map.of("Container ID", "C1", "Status", "In Transit", "Weight (kg)", "15,000"),
+                Map.of("Container ID", "C2", "Status", "Delivered", "Weight (kg)", "12,000"),
+                Map.of("Container ID", "C3", "Status", "Delivered", "Weight (kg)", "9,000"));
+        String csv = """
+                containerId,status,weightKg
+                "C2","Delivered","12000"
+                "C1","Delayed","15000"
+                "C4","Delivered","1"
+                """;
+        ReconciliationReport report = new ReconciliationEngine("containerId", List.of("status", "weightKg"))
+                .reconcile(ui.iterator(), new CsvRowReader(new StringReader(csv)));
+        Assert.assertEquals(report.matchedRows(), 1, report.toString());
+        Assert.assertEquals(report.missing(), List.of("C3"));
+        Assert.assertEquals(report.extra(), List.of("C4"));
+        Assert.assertEquals(report.mismatches(),
+                List.of(new ReconciliationReport.CellMismatch("C1", "status", "In Transit", "Delayed")));
+    }
+
+    @Test
+    public void rowsWithoutTheKeyAreReported() {
+        List<Map<String, String>> ui = List.of(
+                Map.of("Container ID", "C1", "Status", "In Transit"),
+                Map.of("Status", "Delivered"));
+        List<Map<String, String>> export = List.of(Map.of("containerId", "C1", "status", "In Transit"));
+        ReconciliationReport report = new ReconciliationEngine("containerId", List.of("status"))
+                .reconcile(ui.iterator(), export.iterator());
+        Assert.assertFalse(report.isClean(), report.toString());
+        Assert.assertEquals(report.matchedRows(), 1);
+        Assert.assertEquals(report.keyErrors(), List.of("expected row 2 has no value in key column 'containerId'"));
+    }
+
+    @Test
+    public void memoryFollowsDifferencesNotRows() {
+        int rows = 200_000;
+        ReconciliationReport report = new ReconciliationEngine("containerId", List.of("status"))
+                .reconcile(shipments(rows, -1), shipments(rows, 1234));
+        Assert.assertEquals(report.matchedRows(), rows - 1, report.toString());
+        Assert.assertEquals(report.mismatchedRows(), 1);
+        Assert.assertTrue(report.peakPending() <= 2, "peak pending " + report.peakPending());
+    }
+
+    private static Iterator<Map<String, String>> shipments(int rows, int changedRow) {
+        return IntStream.range(0, rows)
+                .mapToObj(i -> Map.of("containerId", "CONT" + i, "status", i == changedRow ? "Delayed" : "In Transit"))
+                .iterator();
+    }
+}
@@ -1,27 +1,25 @@
 package com.saddy.framework.tests;
 
-import com.saddy.framework.pages.LoginPage;
 import com.saddy.framework.pages.RegistrationPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.testng.annotations.BeforeMethod;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 public class RegistrationTest extends BaseTest{
     private static final Logger logger = LoggerFactory.getLogger(RegistrationTest.class);
-    LoginPage loginPage;
-    RegistrationPage registrationPage;
 
-    @BeforeMethod
-    public void beforeLogin() {
-        loginPage = new LoginPage(driver);
-        registrationPage = loginPage.login("admin", "password");
+//    The page stays local to the test: TestNG.xml runs methods of one instance in parallel
+    private RegistrationPage login() {
+        RegistrationPage registrationPage = loginAs("admin", "password");
         logger.debug("Login Successful");
-//        registrationPage = new RegistrationPage(driver);
+        return registrationPage;
     }
 
     @Test
     public void registerUserPositive_TC001() throws InterruptedException {
+        RegistrationPage registrationPage = login();
         registrationPage.enterFirstName("Saddam");
         registrationPage.enterEmailID("saddam.hossain@in.com");
         registrationPage.selectCountry("India");
@@ -31,4 +29,25 @@ public class RegistrationTest extends BaseTest{
         registrationPage.selectTesting();
         Thread.sleep(5000);
     }
+
+    @DataProvider
+    public Object[][] registrations() {
+        return new Object[][]{
+                {"Saddam", "saddam.hossain@in.com", "India", "male", true},
+                {"Ayesha", "ayesha@in.com", "India", "female", false},
+        };
+    }
+
+//    Whole form in one script call per row instead of a command round trip per field
+    @Test(dataProvider = "registrations")
+    public void registerUserBulkFill_TC002(String fName, String email, String country, String gender, boolean testing) {
+        RegistrationPage registrationPage = login();
+        registrationPage.fillForm(fName, email, country, gender, testing);
+
+        Assert.assertEquals(registrationPage.getFirstName(), fName);
+        Assert.assertEquals(registrationPage.getEmailID(), email);
+        Assert.assertEquals(registrationPage.getSelectedCountry(), country);
+        Assert.assertTrue(registrationPage.isGenderSelected(gender), gender + " should be selected");
+        Assert.assertEquals(registrationPage.isTestingSelected(), testing);
+    }
 }
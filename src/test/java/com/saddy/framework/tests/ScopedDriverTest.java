@@ -0,0 +1,49 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.driver.BrowserCapacity;
+import com.saddy.framework.driver.DriverContext;
+import com.saddy.framework.driver.DriverPool;
+import com.saddy.framework.driver.PooledDriver;
+import com.saddy.framework.screenshots.FailureScreenshots;
+import com.saddy.listeners.DriverLifecycleListener;
+import org.openqa.selenium.WebDriver;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+import org.testng.annotations.Listeners;
+
+/**
+ * Base class for browser tests that can run on virtual threads. Each test method waits for a
+ * {@link BrowserCapacity} permit, borrows a session for the {@code browser} parameter of its
+ * {@code <test>} and sees it through {@link #driver()} while it runs. Suite setup and teardown of the
+ * browsers is done by {@link DriverLifecycleListener}.
+ */
+@Listeners(DriverLifecycleListener.class)
+public abstract class ScopedDriverTest implements IHookable {
+
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        DriverPool pool = DriverPool.forBrowser(browserFor(testResult));
+        BrowserCapacity.run(() -> {
+            PooledDriver session = pool.acquire();
+            try {
+                DriverContext.run(session.getDriver(), () -> {
+                    callBack.runTestMethod(testResult);
+                    // The session goes back to the pool before the listeners run
+                    FailureScreenshots.captureIfFailed(testResult);
+                });
+            } finally {
+                pool.release(session);
+            }
+        });
+    }
+
+    protected WebDriver driver() {
+        return DriverContext.current();
+    }
+
+    private static String browserFor(ITestResult testResult) {
+        String browser = testResult.getTestContext().getCurrentXmlTest().getParameter("browser");
+        return browser == null ? "chrome" : browser;
+    }
+}
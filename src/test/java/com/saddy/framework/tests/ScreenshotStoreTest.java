@@ -0,0 +1,100 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.screenshots.ScreenshotStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class ScreenshotStoreTest {
+
+//    A fake 'error page': a coloured banner at a given height and a footer line that changes on every capture
+    private static byte[] page(Color banner, int bannerY, String footer) throws IOException {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 800, 600);
+        g.setColor(banner);
+        g.fillRect(0, bannerY, 500, 120);
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 10));
+        g.drawString(footer, 10, 590);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void keepsOneBlobPerDistinctPage() throws IOException {
+        Path dir = Files.createTempDirectory("screenshot-store-");
+        try {
+            ScreenshotStore store = new ScreenshotStore(dir, 50L * 1024 * 1024, 4, "jpg", 0.75f);
+            long input = 0;
+            for (int i = 0; i < 20; i++) {
+                byte[] png = page(Color.RED, 100, "Request failed at 10:15:" + i);
+                input += png.length;
+                ScreenshotStore.Stored stored = store.store("LoginTests.login-" + i, png);
+                Assert.assertEquals(stored.deduplicated(), i > 0);
+            }
+            ScreenshotStore.Stored other = store.store("DashboardTest.open", page(Color.BLUE, 400, "Not found"));
+            Assert.assertFalse(other.deduplicated());
+            Assert.assertEquals(store.getBlobCount(), 2);
+            Assert.assertTrue(store.getStoredBytes() < input / 3, store.report());
+            try (Stream<String> lines = Files.lines(dir.resolve("index.csv"))) {
+                Assert.assertEquals(lines.count(), 21);
+            }
+
+            // Blobs of earlier runs are found again
+            ScreenshotStore reopened = new ScreenshotStore(dir, 50L * 1024 * 1024, 4, "jpg", 0.75f);
+            Assert.assertTrue(reopened.store("LoginTests.login-rerun", page(Color.RED, 100, "Request failed at 11:00:00")).deduplicated());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBlobsOverQuota() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("screenshot-store-");
+        try {
+            ScreenshotStore probe = new ScreenshotStore(dir.resolve("probe"), Long.MAX_VALUE, 0, "png", 0f);
+            probe.store("probe", page(Color.RED, 0, ""));
+            long blobSize = probe.getStoredBytes();
+
+            // Room for about two pages
+            ScreenshotStore store = new ScreenshotStore(dir.resolve("store"), blobSize * 5 / 2, 0, "png", 0f);
+            Path first = store.store("first", page(Color.RED, 0, "")).blob();
+            Thread.sleep(5);
+            Path second = store.store("second", page(Color.RED, 240, "")).blob();
+            Thread.sleep(5);
+            store.store("first-again", page(Color.RED, 0, ""));
+            Thread.sleep(5);
+            Path third = store.store("third", page(Color.RED, 480, "")).blob();
+
+            Assert.assertTrue(Files.exists(first), "Recently reused blob was evicted");
+            Assert.assertFalse(Files.exists(second), "Least recently used blob was kept");
+            Assert.assertTrue(Files.exists(third));
+            Assert.assertTrue(store.getStoredBytes() <= blobSize * 5 / 2, store.report());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.saddy.framework.tests;
+
+import com.saddy.enumdemo.TestStatus;
+import com.saddy.framework.driver.ShardedDataRunner;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class ShardedDataRunnerTest {
+
+//    No browser needed: the runner only borrows and gives back whatever the supplier returns
+    private static ShardedDataRunner runner(AtomicInteger borrowed) {
+        return ShardedDataRunner.withSessions(() -> {
+            borrowed.incrementAndGet();
+            return null;
+        }, driver -> borrowed.decrementAndGet());
+    }
+
+    @Test
+    public void idleShardsStealSlowRows() {
+        AtomicInteger borrowed = new AtomicInteger();
+        Iterator<Object[]> rows = IntStream.range(0, 40).mapToObj(i -> new Object[]{i}).iterator();
+        ShardedDataRunner.RunReport report = runner(borrowed).shards(4).lookahead(10).run(rows, (driver, row) -> {
+            // Every row dealt to shard 0 is slow
+            Thread.sleep((int) row[0] % 4 == 0 ? 50 : 1);
+        });
+        Assert.assertEquals(report.results().size(), 40, report.toString());
+        Assert.assertEquals(report.count(TestStatus.PASS), 40);
+        Assert.assertTrue(report.stolenRows() > 0, "Expected other shards to take over rows of the slow shard");
+        Assert.assertTrue(report.wallMillis() < 10 * 50, "Slow rows ran one after another: " + report);
+        Assert.assertEquals(borrowed.get(), 0);
+    }
+
+    @Test
+    public void recordsEveryRowOutcome() {
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger read = new AtomicInteger();
+        Iterator<Object[]> rows = IntStream.range(0, 6).peek(i -> read.incrementAndGet()).mapToObj(i -> new Object[]{i}).iterator();
+        ShardedDataRunner.RunReport report = runner(borrowed).shards(2).lookahead(1).run(rows, (driver, row) -> {
+            int value = (int) row[0];
+            if (value == 2) {
+                throw new SkipException("not applicable");
+            }
+            Assert.assertNotEquals(value, 4);
+        });
+        Assert.assertEquals(read.get(), 6);
+        Assert.assertEquals(report.results().get(2).status(), TestStatus.SKIPP);
+        Assert.assertEquals(report.results().get(4).status(), TestStatus.FAIL);
+        Assert.assertEquals(report.failures().size(), 1);
+        Assert.assertThrows(AssertionError.class, report::assertAllPassed);
+        Assert.assertEquals(borrowed.get(), 0);
+    }
+
+//    An Error from a row or a failing give-back must not kill the worker and leave the feeder waiting
+    @Test(timeOut = 10_000)
+    public void workersSurviveErrorsAndFailedGiveBacks() {
+        AtomicInteger givenBack = new AtomicInteger();
+        ShardedDataRunner runner = ShardedDataRunner.withSessions(() -> null, driver -> {
+            if (givenBack.incrementAndGet() == 3) {
+                throw new IllegalStateException("pool closed");
+            }
+        });
+        Iterator<Object[]> rows = IntStream.range(0, 6).mapToObj(i -> new Object[]{i}).iterator();
+        ShardedDataRunner.RunReport report = runner.shards(1).lookahead(1).run(rows, (driver, row) -> {
+            if ((int) row[0] == 1) {
+                throw new StackOverflowError("too deep");
+            }
+        });
+        Assert.assertEquals(report.results().size(), 6, report.toString());
+        Assert.assertEquals(report.results().get(1).status(), TestStatus.FAIL);
+        Assert.assertEquals(report.results().get(2).status(), TestStatus.BLOCK);
+        Assert.assertEquals(report.count(TestStatus.PASS), 4);
+    }
+}
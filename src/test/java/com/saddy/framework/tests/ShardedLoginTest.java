@@ -0,0 +1,39 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.driver.DriverPool;
+import com.saddy.framework.driver.ShardedDataRunner;
+import com.saddy.framework.pages.LoginPage;
+import com.saddy.listeners.DriverLifecycleListener;
+import org.testng.Assert;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+@Listeners(DriverLifecycleListener.class)
+public class ShardedLoginTest {
+
+    private Iterator<Object[]> logins() {
+        return Arrays.asList(new Object[][]{
+                {"admin", "password", "Login successful!"},
+                {"admin", "password1", "Invalid password! Please check your password."},
+                {"admin", "wrong", "Invalid password! Please check your password."},
+                {"admin", "password", "Login successful!"},
+        }).iterator();
+    }
+
+//    All rows in one test method, split over the pool sessions; idle shards steal rows from busy ones.
+//    Rows can come straight from a file too, e.g. ExcelDataSource.open(path, "logins").rows("User", "Password", "Message")
+    @Test
+    public void loginWithEveryCredentialSharded_TC003() {
+        ShardedDataRunner.RunReport report = ShardedDataRunner.onPool(DriverPool.forBrowser("chrome"))
+                .run(logins(), (driver, row) -> {
+                    LoginPage loginPage = new LoginPage(driver);
+                    loginPage.login((String) row[0], (String) row[1]);
+                    Assert.assertEquals(loginPage.getLoginAlertMessage(), row[2]);
+                });
+        Assert.assertEquals(report.results().size(), 4, report.toString());
+        report.assertAllPassed();
+    }
+}
@@ -0,0 +1,66 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.SharedRow;
+import com.saddy.framework.data.SharedTestData;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class SharedTestDataTest {
+
+    @Test
+    public void loadsOncePerJvm() {
+        AtomicInteger loads = new AtomicInteger();
+        Object[][] rows = {{"user1", "pass1", 1L, true}, {"user2", null, 2, 2.5}};
+        SharedTestData first = SharedTestData.fromArrays("shared-once", () -> {
+            loads.incrementAndGet();
+            return rows;
+        });
+        SharedTestData second = SharedTestData.fromArrays("shared-once", () -> {
+            loads.incrementAndGet();
+            return rows;
+        });
+        Assert.assertSame(first, second);
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertEquals(first.rowCount(), 2);
+        Iterator<Object[]> parameters = first.parameters();
+        Assert.assertEquals(parameters.next(), rows[0]);
+        Assert.assertEquals(parameters.next(), rows[1]);
+        Assert.assertFalse(parameters.hasNext());
+    }
+
+//    A million rows read by several threads at once; the views only carry a row number
+    @Test
+    public void parallelReadersShareOneCopy() {
+        int rows = 1_000_000;
+        SharedTestData store = SharedTestData.fromRows("shared-large", List.of("User", "Amount", "Active"),
+                () -> IntStream.range(0, rows).mapToObj(i -> new Object[]{"user" + i, (long) i * 3, i % 2 == 0}).iterator());
+        Assert.assertEquals(store.rowCount(), rows);
+
+        long total = IntStream.range(0, rows).parallel()
+                .mapToObj(store::row)
+                .filter(row -> row.getBoolean(2))
+                .mapToLong(row -> row.getLong("Amount"))
+                .sum();
+        Assert.assertEquals(total, 3L * (rows / 2L) * (rows / 2L - 1));
+
+        SharedRow last = store.row(rows - 1);
+        Assert.assertEquals(last.getString("User"), "user" + (rows - 1));
+        Assert.assertEquals(last.fieldCount(), 3);
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> store.row(rows));
+    }
+
+    @Test
+    public void sameNameWithOtherColumnsFails() {
+        SharedTestData store = SharedTestData.fromRows("shared-columns", List.of("User", "Active"),
+                () -> List.<Object[]>of(new Object[]{"user1", "yes"}).iterator());
+        Assert.assertSame(SharedTestData.fromRows("shared-columns", List.of("User", "Active"), List.<Object[]>of()::iterator), store);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> SharedTestData.fromRows("shared-columns", List.of("Login"), List.<Object[]>of()::iterator));
+        Assert.assertThrows(IllegalStateException.class, () -> store.row(0).getBoolean("Active"));
+    }
+}
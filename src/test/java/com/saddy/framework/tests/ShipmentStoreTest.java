@@ -0,0 +1,72 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.CsvRowReader;
+import com.saddy.framework.data.ShipmentStore;
+import com.saddy.framework.data.ShipmentStore.Dimension;
+import com.saddy.framework.data.ShipmentStore.Measure;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+//    Every aggregate is checked against the same numbers computed with streams over the CSV rows
+public class ShipmentStoreTest {
+    private static final Path REPORT = Path.of("data", "shipment-report.csv");
+    private ShipmentStore store;
+    private List<Map<String, String>> rows;
+
+    @BeforeClass
+    public void load() throws IOException {
+        store = ShipmentStore.load(REPORT);
+        rows = new ArrayList<>();
+        try (CsvRowReader reader = CsvRowReader.open(REPORT)) {
+            reader.forEachRemaining(rows::add);
+        }
+    }
+
+    @Test
+    public void valueByStatus() {
+        Map<String, Long> expected = rows.stream().collect(Collectors.groupingBy(row -> row.get("status"),
+                Collectors.summingLong(row -> Long.parseLong(row.get("valueUSD")))));
+        Assert.assertEquals(store.query().groupBy(Dimension.STATUS).sumByGroup(Measure.VALUE_USD), expected);
+    }
+
+    @Test
+    public void averageWeightByOriginPort() {
+        Map<String, Double> expected = rows.stream().collect(Collectors.groupingBy(row -> row.get("originPort"),
+                Collectors.averagingLong(row -> Long.parseLong(row.get("weightKg")))));
+        Assert.assertEquals(store.query().groupBy(Dimension.ORIGIN_PORT).avgByGroup(Measure.WEIGHT_KG), expected);
+    }
+
+    @Test
+    public void delayedPerShipper() {
+        Map<String, Long> expected = rows.stream().filter(row -> row.get("status").equals("Delayed"))
+                .collect(Collectors.groupingBy(row -> row.get("shipper"), Collectors.counting()));
+        Assert.assertEquals(store.query().where(Dimension.STATUS, "Delayed").groupBy(Dimension.SHIPPER).countByGroup(),
+                expected);
+    }
+
+    @Test
+    public void combinedFilters() {
+        LocalDate from = LocalDate.of(2024, 5, 1);
+        LocalDate to = LocalDate.of(2024, 5, 31);
+        long expected = rows.stream()
+                .filter(row -> row.get("status").equals("In Transit"))
+                .filter(row -> !LocalDate.parse(row.get("shipmentDate")).isBefore(from)
+                        && !LocalDate.parse(row.get("shipmentDate")).isAfter(to))
+                .filter(row -> Long.parseLong(row.get("weightKg")) >= 10_000)
+                .mapToLong(row -> Long.parseLong(row.get("valueUSD"))).sum();
+        ShipmentStore.Query query = store.query().where(Dimension.STATUS, "In Transit").shippedBetween(from, to)
+                .whereBetween(Measure.WEIGHT_KG, 10_000, Long.MAX_VALUE);
+        Assert.assertEquals(query.sum(Measure.VALUE_USD), expected);
+        Assert.assertEquals(store.query().where(Dimension.STATUS, "No such status").count(), 0);
+        Assert.assertEquals(store.query().count(), rows.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.TestDataCache;
+import com.saddy.framework.data.TestDataTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TestDataCacheTest {
+
+    @Test
+    public void snapshotHoldsTheSameRowsAsTheWorkbook() {
+        TestDataTable table = TestDataCache.excel(Path.of("data", "TestFile.xlsx"), "employee");
+        Assert.assertEquals(table.headers(), List.of("Name", "Age", "City"));
+        Assert.assertEquals(table.rowCount(), 2);
+        Assert.assertTrue(table.isNumeric(table.columnIndex("age")));
+        Assert.assertEquals(table.getLong(1, 1), 30);
+        Assert.assertEquals(table.row(0), Map.of("Name", "Alice", "Age", "20", "City", "Pune"));
+        List<Object[]> rows = new ArrayList<>();
+        table.rows("City", "Name").forEachRemaining(rows::add);
+        Assert.assertEquals(rows.get(1), new Object[]{"Delhi", "Jhon"});
+    }
+
+    @Test
+    public void changedSourceIsRebuilt() throws IOException {
+        Path csv = Files.createTempFile("cached-", ".csv");
+        try {
+            Files.writeString(csv, "id,name,amount\n1,\"Ann, Lee\",007\n2,Bob,-5\n");
+            TestDataTable first = TestDataCache.csv(csv);
+            Assert.assertEquals(first.getString(0, 1), "Ann, Lee");
+            Assert.assertFalse(first.isNumeric(2), "007 would not survive as a number");
+            Assert.assertTrue(first.isNumeric(0));
+
+            Assert.assertSame(TestDataCache.csv(csv), first);
+
+            long rebuilds = TestDataCache.getRebuilds();
+            Files.writeString(csv, "id,name,amount\n1,Ann,7\n");
+            Files.setLastModifiedTime(csv, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+            TestDataTable second = TestDataCache.csv(csv);
+            Assert.assertEquals(TestDataCache.getRebuilds(), rebuilds + 1);
+            Assert.assertEquals(second.rowCount(), 1);
+            Assert.assertEquals(second.getLong(0, 2), 7);
+        } finally {
+            Files.delete(csv);
+        }
+    }
+
+    @Test
+    public void headerOnlySourceAndNegativeZero() throws IOException {
+        Path empty = Files.createTempFile("cached-empty-", ".csv");
+        Path zero = Files.createTempFile("cached-zero-", ".csv");
+        try {
+            Files.writeString(empty, "id,name\n");
+            TestDataTable headersOnly = TestDataCache.csv(empty);
+            Assert.assertEquals(headersOnly.headers(), List.of("id", "name"));
+            Assert.assertEquals(headersOnly.rowCount(), 0);
+
+            Files.writeString(zero, "id,amount\n1,-0\n2,3\n");
+            TestDataTable table = TestDataCache.csv(zero);
+            Assert.assertFalse(table.isNumeric(1), "-0 would come back as 0");
+            Assert.assertEquals(table.getString(0, 1), "-0");
+        } finally {
+            Files.delete(empty);
+            Files.delete(zero);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.saddy.framework.tests;
+
+import com.saddy.framework.data.WorkbookIndex;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class WorkbookIndexTest {
+
+    @Test
+    public void findsEmployeeByName() {
+        WorkbookIndex workbook = WorkbookIndex.open(Path.of("data", "TestFile.xlsx"));
+        WorkbookIndex.WorkbookRow jhon = workbook.findRow("employee", "Name", "Jhon").orElseThrow();
+        Assert.assertEquals(jhon.getInt("Age"), 30);
+        Assert.assertEquals(jhon.project("City", "Name"), new Object[]{"Delhi", "Jhon"});
+        Assert.assertTrue(workbook.findRow("employee", "Name", "Nobody").isEmpty());
+        Assert.assertSame(workbook.keyedBy("employee", "name"), WorkbookIndex.open(Path.of("data", "TestFile.xlsx")).keyedBy("employee", "NAME"));
+    }
+
+    @Test
+    public void looksUpLargeSheetsWithoutScanning() throws IOException {
+        Path file = Files.createTempFile("indexed-", ".xlsx");
+        try {
+            try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file)) {
+                Sheet sheet = workbook.createSheet("orders");
+                Row header = sheet.createRow(0);
+                header.createCell(0).setCellValue("Order Id");
+                header.createCell(1).setCellValue("Amount");
+                header.createCell(2).setCellValue("Paid");
+                for (int i = 1; i <= 100_000; i++) {
+                    Row row = sheet.createRow(i);
+                    row.createCell(0).setCellValue("ORD" + i);
+                    row.createCell(1).setCellValue(i * 10);
+                    row.createCell(2).setCellValue(i % 2 == 0);
+                }
+                workbook.write(out);
+            }
+            WorkbookIndex.SheetIndex orders = WorkbookIndex.open(file).keyedBy("orders", "orderId");
+            Assert.assertEquals(orders.rowCount(), 100_000);
+            long start = System.nanoTime();
+            for (int i = 1; i <= 100_000; i += 997) {
+                WorkbookIndex.WorkbookRow order = orders.findRow("ORD" + i).orElseThrow();
+                Assert.assertEquals(order.getLong("amount"), i * 10L);
+                Assert.assertEquals(order.getBoolean("paid"), i % 2 == 0);
+            }
+            long micros = (System.nanoTime() - start) / 1000;
+            // an indexed lookup should not come anywhere near a scan of 100,000 rows
+            Assert.assertTrue(micros < 1_000_000, "101 lookups took " + micros + " us");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.saddy.javatest;
 
+import com.saddy.framework.data.WorkbookIndex;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 
 public class ReadExcel {
     public static void main(String[] args) throws IOException {
@@ -27,5 +29,12 @@ public class ReadExcel {
         System.out.println(sheet.getPhysicalNumberOfRows());
         System.out.println(sheet.getRow(0).getLastCellNum());
 
+//        Same lookups through an index on the Name column: a hash lookup instead of knowing the row number
+        WorkbookIndex.SheetIndex employees = WorkbookIndex.open(Path.of(filePath)).keyedBy("employee", "Name");
+        WorkbookIndex.WorkbookRow jhon = employees.findRow("Jhon").orElseThrow();
+        System.out.println("Name of John: " + jhon.getString("Name"));
+        System.out.println("Name of age: " + jhon.getInt("Age"));
+        System.out.println(employees);
+
     }
 }
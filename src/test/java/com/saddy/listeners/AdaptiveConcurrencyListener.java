@@ -0,0 +1,74 @@
+package com.saddy.listeners;
+
+import com.saddy.framework.driver.AdaptiveConcurrencyController;
+import com.saddy.framework.driver.AdaptiveExecutorFactory;
+import com.saddy.framework.driver.BrowserCapacity;
+import com.saddy.framework.driver.DriverPool;
+import com.saddy.framework.driver.VirtualThreadExecutorFactory;
+import org.testng.IExecutionListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Hands the number of parallel browser tests to {@link AdaptiveConcurrencyController} instead of a fixed
+ * {@code thread-count}. It resizes {@link BrowserCapacity}, the driver pools and the TestNG worker pools, which
+ * it hands to TestNG as an {@link AdaptiveExecutorFactory} before the first suite starts (surefire has no option
+ * for an executor factory).
+ * <p>
+ * On by default, switched off with {@code -Dtestng.adaptiveConcurrency=false}.
+ */
+public class AdaptiveConcurrencyListener implements IExecutionListener, ITestListener {
+    private AdaptiveConcurrencyController controller;
+
+    // TestNG.getDefault() is the only way a listener reaches the running instance's executor factory
+    @SuppressWarnings("deprecation")
+    @Override
+    public void onExecutionStart() {
+        if (!Boolean.parseBoolean(System.getProperty("testng.adaptiveConcurrency", "true"))) {
+            return;
+        }
+        AdaptiveExecutorFactory workers = new AdaptiveExecutorFactory(VirtualThreadExecutorFactory.isInstalled());
+        TestNG.getDefault().setExecutorServiceFactory(workers);
+        controller = new AdaptiveConcurrencyController(limit -> {
+            workers.resize(limit);
+            BrowserCapacity.resize(limit);
+            DriverPool.resizeAll(limit);
+        }, () -> BrowserCapacity.getInUse() + BrowserCapacity.getQueueLength());
+        controller.start();
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (controller != null) {
+            controller.stop();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finished(false);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finished(result.getThrowable() instanceof TimeoutException);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finished(false);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        finished(true);
+    }
+
+    private void finished(boolean timedOut) {
+        if (controller != null) {
+            controller.recordCompletion(timedOut);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.saddy.listeners;
+
+import com.saddy.framework.metrics.CommandMetrics;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.json.Json;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Tells {@link CommandMetrics} which test is running, attaches each test's command breakdown to its Allure
+ * result, and writes the breakdown of the whole suite to {@code target/command-metrics/<suite>.json}.
+ */
+public class CommandMetricsListener implements IInvokedMethodListener, ISuiteListener {
+    private static final Json JSON = new Json();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            CommandMetrics.startTest(testId(testResult));
+        }
+    }
+
+    // Runs before the result listeners, while Allure still has the test open for attachments.
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        CommandMetrics.endTest();
+        Map<String, Object> summary = CommandMetrics.summaryOf(testId(testResult));
+        if (summary != null) {
+            Allure.addAttachment("WebDriver command latency", "application/json", JSON.toJson(summary), ".json");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Path file = Path.of("target", "command-metrics", suite.getName().replaceAll("\\W+", "_") + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, JSON.toJson(CommandMetrics.report()));
+            System.out.println("WebDriver command metrics written to: " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Error writing command metrics: " + e.getMessage());
+        }
+    }
+
+    static String testId(ITestResult result) {
+        String id = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? id : id + Arrays.toString(parameters);
+    }
+}
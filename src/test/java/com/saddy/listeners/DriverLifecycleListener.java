@@ -0,0 +1,37 @@
+package com.saddy.listeners;
+
+import com.saddy.framework.driver.BrowserCapacity;
+import com.saddy.framework.driver.DriverFactory;
+import com.saddy.framework.driver.DriverPool;
+import com.saddy.framework.driver.DriverPreWarmer;
+import com.saddy.framework.pages.ElementCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Suite-wide browser setup and teardown, in one place for every browser test base class. The classes that need
+ * browsers declare it with {@code @Listeners}; TestNG keeps one instance per listener class, so a suite
+ * mixing them still configures, pre-warms and shuts down the pools once.
+ */
+public class DriverLifecycleListener implements ISuiteListener {
+    private static final Logger logger = LogManager.getLogger(DriverLifecycleListener.class);
+
+    // Launch the browsers in the background while TestNG is still setting up the rest of the suite
+    @Override
+    public void onStart(ISuite suite) {
+        DriverFactory.configure(suite);
+        DriverPreWarmer.start(suite);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        DriverPreWarmer.report();
+        DriverFactory.report();
+        BrowserCapacity.report();
+        ElementCache.allMetrics().forEach((page, metrics) ->
+                logger.info("Element cache {} - {}", page.getSimpleName(), metrics));
+        DriverPool.shutdownAll();
+    }
+}
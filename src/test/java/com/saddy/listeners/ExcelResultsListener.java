@@ -0,0 +1,82 @@
+package com.saddy.listeners;
+
+import com.saddy.enumdemo.TestStatus;
+import com.saddy.framework.data.ExcelResultsWriter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records every test result of a suite in {@code data/<suite>-results.xlsx}, next to the input workbooks,
+ * through an {@link ExcelResultsWriter}. {@code results.excel.dir} changes the folder and
+ * {@code results.excel=false} turns the workbook off.
+ */
+public class ExcelResultsListener implements ISuiteListener, ITestListener {
+    private final Map<String, ExcelResultsWriter> writers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (Boolean.parseBoolean(System.getProperty("results.excel", "true"))) {
+            Path file = Path.of(System.getProperty("results.excel.dir", "data"),
+                    suite.getName().replaceAll("\\W+", "_") + "-results.xlsx");
+            writers.put(suite.getName(), ExcelResultsWriter.open(file));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ExcelResultsWriter writer = writers.remove(suite.getName());
+        if (writer != null) {
+            writer.close();
+            System.out.println(writer.getResultCount() + " test results written to: " + writer.getFile().toAbsolutePath());
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, TestStatus.PASS);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, TestStatus.FAIL);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result, TestStatus.FAIL);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        record(result, TestStatus.FAIL);
+    }
+
+//    Skipped on purpose (SkipException) vs. never run because a configuration or dependency failed
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        Throwable reason = result.getThrowable();
+        record(result, reason == null || reason instanceof SkipException ? TestStatus.SKIPP : TestStatus.BLOCK);
+    }
+
+    private void record(ITestResult result, TestStatus status) {
+        ExcelResultsWriter writer = writers.get(result.getTestContext().getSuite().getName());
+        if (writer == null) {
+            return;
+        }
+        Object[] parameters = result.getParameters();
+        Throwable failure = result.getThrowable();
+        writer.append(result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName(),
+                parameters == null || parameters.length == 0 ? "" : Arrays.toString(parameters),
+                status,
+                Math.max(0, result.getEndMillis() - result.getStartMillis()),
+                failure == null ? "" : failure.toString());
+    }
+}
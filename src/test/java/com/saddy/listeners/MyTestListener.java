@@ -1,16 +1,16 @@
 package com.saddy.listeners;
 
-import org.apache.commons.io.FileUtils;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import com.saddy.framework.screenshots.FailureScreenshots;
+import com.saddy.framework.screenshots.ScreenshotStore;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.io.File;
+import java.util.concurrent.TimeUnit;
 
-import static com.saddy.automation.ScreenshotDemo.driver;
-
-public class MyTestListener implements ITestListener {
+public class MyTestListener implements ITestListener, IInvokedMethodListener {
     @Override
     public void onTestStart(ITestResult result) {
         System.out.println("Test Started: " + result.getMethod().getMethodName());
@@ -22,13 +22,20 @@ public class MyTestListener implements ITestListener {
         System.out.println("Test Passed: " + result.getMethod().getMethodName());
     }
 
+//    Take screenshot on failure. This runs right after the test method, before @AfterMethod gives the session
+//    back to the pool, so the driver of this thread is still the one the test used. The test thread only
+//    fetches the bytes; the file and the Allure attachment are written in the background.
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            FailureScreenshots.captureIfFailed(testResult);
+        }
+    }
+
     @Override
     public void onTestFailure(ITestResult result) {
         System.out.println("Test Failed: " + result.getMethod().getMethodName());
         System.out.println("Failure Reason: " + result.getThrowable());
-
-        // Take screenshot on failure
-        takeScreenshot(result.getMethod().getMethodName());
     }
 
     @Override
@@ -36,18 +43,10 @@ public class MyTestListener implements ITestListener {
         System.out.println("Test Skipped: " + result.getMethod().getMethodName());
     }
 
-    private void takeScreenshot(String testName) {
-        // Screenshot implementation
-        System.out.println("Screenshot taken for: " + testName);
-        TakesScreenshot ts = (TakesScreenshot) driver;
-        String filePath = "/target/" + "Screenshot";
-        try {
-            File source = ts.getScreenshotAs(OutputType.FILE);
-            File destination = new File(filePath + ".png");
-            FileUtils.copyFile(source, destination);
-            System.out.println("Screenshot saved to: " + filePath);
-        } catch (Exception e) {
-            System.err.println("Error taking screenshot: " + e.getMessage());
-        }
+    @Override
+    public void onFinish(ITestContext context) {
+        FailureScreenshots.awaitPending(30, TimeUnit.SECONDS);
+        System.out.println("Failure " + FailureScreenshots.report());
+        System.out.println(ScreenshotStore.getDefault().report());
     }
 }
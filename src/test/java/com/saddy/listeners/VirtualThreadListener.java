@@ -0,0 +1,26 @@
+package com.saddy.listeners;
+
+import com.saddy.framework.driver.VirtualThreadExecutorFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IExecutionListener;
+
+/**
+ * Reports whether test methods run on virtual threads. TestNG installs {@link VirtualThreadExecutorFactory}
+ * itself when started with {@code -threadpoolfactoryclass} (the {@code virtual-threads} Maven profile); a run
+ * that asks for virtual threads with {@code -Dtestng.virtualThreads=true} but was started without it is warned
+ * about instead of silently running on platform threads.
+ */
+public class VirtualThreadListener implements IExecutionListener {
+    private static final Logger logger = LogManager.getLogger(VirtualThreadListener.class);
+
+    @Override
+    public void onExecutionStart() {
+        if (VirtualThreadExecutorFactory.isInstalled()) {
+            logger.info("Running test methods on virtual threads");
+        } else if (Boolean.getBoolean("testng.virtualThreads")) {
+            logger.warn("testng.virtualThreads is set, but TestNG was not started with -threadpoolfactoryclass {}; "
+                    + "test methods run on platform threads", VirtualThreadExecutorFactory.class.getName());
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.saddy.testngdemo;
 
+import com.saddy.framework.data.SharedTestData;
+import com.saddy.framework.data.TestDataCache;
 import org.testng.annotations.DataProvider;
 
+import java.nio.file.Path;
+import java.util.Iterator;
+
 public class DataProvideClass {
 
     @DataProvider(name = "credentials")
@@ -12,4 +17,18 @@ public class DataProvideClass {
                 {"user3", "pass3", "Login Failed"}
         };
     }
+
+//    Same rows, encoded once per JVM into off-heap memory. Parallel invocations and every class using this
+//    provider read the one shared copy; the values are only decoded when the test method is called.
+    @DataProvider(name = "sharedCredentials", parallel = true)
+    public Iterator<Object[]> sharedLoginData() {
+        return SharedTestData.fromArrays("credentials", this::loginData).parameters();
+    }
+
+//    Parsed once into a snapshot under target/ (see ReadExcel for the plain POI way); later runs skip POI
+//    until the workbook changes. ExcelDataSource.open(...).rows(...) streams it without the cache.
+    @DataProvider(name = "employees")
+    public Iterator<Object[]> employeeData() {
+        return TestDataCache.excel(Path.of("data", "TestFile.xlsx"), "employee").rows("Name", "Age", "City");
+    }
 }
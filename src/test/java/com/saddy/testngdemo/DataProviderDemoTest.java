@@ -1,8 +1,11 @@
 package com.saddy.testngdemo;
 
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+
 public class DataProviderDemoTest {
 
     @Test(dataProvider = "credentials", dataProviderClass = DataProvideClass.class) //to use data provider method from different class
@@ -15,6 +18,24 @@ public class DataProviderDemoTest {
         );
     }
 
+    @Test(dataProvider = "sharedCredentials", dataProviderClass = DataProvideClass.class)
+    public void sharedLoginTest(String userid, String pwd, String msg) {
+        System.out.println(Thread.currentThread().getName() + " - Userid: " + userid + ", Password: " + pwd + ", Verification Message: " + msg);
+//        The values decoded from the shared store are the ones the plain provider returns
+        Object[] expected = Arrays.stream(new DataProvideClass().loginData())
+                .filter(row -> row[0].equals(userid))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Unknown userid " + userid));
+        Assert.assertEquals(new Object[]{userid, pwd, msg}, expected);
+    }
+
+    @Test(dataProvider = "employees", dataProviderClass = DataProvideClass.class)
+    public void employeeTest(String name, String age, String city) {
+        System.out.println("Name: " + name + ", Age: " + age + ", City: " + city);
+        Assert.assertFalse(name.isBlank(), "Name is empty");
+        Assert.assertTrue(age.matches("\\d+") && Integer.parseInt(age) > 0, "Age is not a positive number: " + age);
+        Assert.assertFalse(city.isBlank(), "City is empty for " + name);
+    }
 
 //    @DataProvider(name = "credentials")
 //    public Object[][] loginData() {
@@ -1,18 +1,15 @@
 package com.saddy.testngdemo;
 
+import com.saddy.framework.tests.ScopedDriverTest;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.testng.annotations.*;
 
-public class ParallelTests {
-
-    private ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+// The driver is no longer kept in a ThreadLocal. ScopedDriverTest borrows a session for the "browser"
+// parameter around every test method and driver() returns it through a ScopedValue.
+public class ParallelTests extends ScopedDriverTest {
 
     @BeforeSuite
     public void beforeSuite() {
@@ -21,25 +18,12 @@ public class ParallelTests {
         System.out.println(System.getProperty("pwd"));
         System.out.println(System.getProperty("env"));
     }
-    @Parameters("browser")
-    @BeforeMethod
-    public void setUp(String browser) {
-        WebDriver webDriver;
-        if (browser.equals("chrome"))
-            webDriver = new ChromeDriver();
-        else if (browser.equals("firefox"))
-            webDriver = new FirefoxDriver();
-        else
-            webDriver = new EdgeDriver();
-
-        driver.set(webDriver);
-    }
 
     @Test
     public void parallelTest1() {
-        driver.get().get("https://panjatan.netlify.app/");
+        driver().get("https://panjatan.netlify.app/");
         // Test implementation
-        System.out.println("Title from Test1: " + driver.get().getTitle());
+        System.out.println("Title from Test1: " + driver().getTitle());
     }
 
     @Description("Verify successful login with valid credentials")
@@ -47,9 +31,9 @@ public class ParallelTests {
     @Story("User Authentication")
     @Test
     public void parallelTest2() {
-        driver.get().get("https://panjatan.netlify.app/table");
+        driver().get("https://panjatan.netlify.app/table");
         // Test implementation
-        System.out.println("Title from Test2: " + driver.get().getTitle());
+        System.out.println("Title from Test2: " + driver().getTitle());
     }
 
     @Description("Verify successful login with invalid credentials")
@@ -57,16 +41,8 @@ public class ParallelTests {
     @Story("User Authentication")
     @Test
     public void parallelTest3() {
-        driver.get().get("https://panjatan.netlify.app/table");
+        driver().get("https://panjatan.netlify.app/table");
         // Test implementation
-        System.out.println("Title from Test3: " + driver.get().getTitle());
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver.get() != null) {
-            driver.get().quit();
-            driver.remove();
-        }
+        System.out.println("Title from Test3: " + driver().getTitle());
     }
-}
\ No newline at end of file
+}
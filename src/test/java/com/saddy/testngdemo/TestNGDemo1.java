@@ -1,8 +1,20 @@
 package com.saddy.testngdemo;
 
+import com.saddy.framework.download.DownloadManager;
+import com.saddy.framework.tests.ScopedDriverTest;
+import org.openqa.selenium.By;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
-public class TestNGDemo1 {
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+//    Each download test gets its own download folder, so they can run in parallel on pooled sessions
+public class TestNGDemo1 extends ScopedDriverTest {
 //    public static void main(String[] args) {
 //        csvDownloadTest();
 //        excelDownloadTest();
@@ -10,17 +22,40 @@ public class TestNGDemo1 {
 //    }
 
     @Test
-    static void csvDownloadTest() {
+    public void csvDownloadTest() {
+        download("csvDownloadTest", By.id("download-csv"), "*.csv", file -> {
+            try {
+                Assert.assertTrue(Files.readString(file).startsWith("containerId,"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         System.out.println("CSV Test Run Successfully");
     }
 
     @Test
-    static void excelDownloadTest() {
+    public void excelDownloadTest() {
+        download("excelDownloadTest", By.xpath("//button[normalize-space()='Download Excel']"), "*.xls*",
+                file -> Assert.assertTrue(file.toFile().length() > 0));
         System.out.println("Excel Test Run Successfully");
     }
 
     @Test
-    static void textDownloadTest() {
+    public void textDownloadTest() {
+        download("textDownloadTest", By.xpath("//button[normalize-space()='Download TXT']"), "*.txt",
+                file -> Assert.assertTrue(file.toFile().length() > 0));
         System.out.println("Text Test Run Successfully");
     }
+
+//    The folder is deleted afterwards, so checks on the file run inside
+    private void download(String testName, By button, String glob, Consumer<Path> check) {
+        try (DownloadManager downloads = DownloadManager.forTest(testName)) {
+            downloads.routeDownloads(driver());
+            driver().get("https://panjatan.netlify.app/table");
+            driver().findElement(button).click();
+            Path file = downloads.awaitDownload(glob, Duration.ofSeconds(30));
+            System.out.println(testName + " downloaded " + file.getFileName() + " sha256 " + downloads.checksumOf(file));
+            check.accept(file);
+        }
+    }
 }